@@ -0,0 +1,50 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Copies the ROMs bundled with the emulator out of the classpath so
+ * they can be handed to Chip8Memory.loadProgram.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class BenchmarkRoms {
+
+    private BenchmarkRoms() {
+    }
+
+    static Path extract(String name) {
+        try (InputStream in = BenchmarkRoms.class.getResourceAsStream("/roms/" + name)) {
+            if (in == null)
+                throw new IllegalArgumentException("No bundled ROM named " + name);
+            Path path = Files.createTempFile("chip8-" + name, ".ch8");
+            path.toFile().deleteOnExit();
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+            return path;
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
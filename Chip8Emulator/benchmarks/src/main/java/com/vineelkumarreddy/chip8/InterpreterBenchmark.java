@@ -0,0 +1,108 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of every bundled ROM, headless, driven a frame at a time
+ * under Chip8KeyScript so timers tick and key waits end the way they
+ * do in a real run. The score is frames per second; the
+ * instructions counter is the instructions actually executed per second,
+ * leaving out the cycles skipped in idle loops, key waits and halts.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpreterBenchmark {
+    static final int FRAMES = 60;
+    // Far above real speed so the CPU and not the frame loop dominates
+    static final int INSTRUCTIONS_PER_SECOND = 60_000;
+
+    @Param({"15PUZZLE", "BLINKY", "BLITZ", "BRIX", "CONNECT4", "GUESS", "HIDDEN", "IBM",
+            "INVADERS", "KALEID", "MAZE", "MERLIN", "MISSILE", "PONG", "PONG2", "PUZZLE",
+            "SYZYGY", "TANK", "TETRIS", "TICTAC", "UFO", "VBRIX", "VERS", "WIPEOFF"})
+    String rom;
+
+    @Param({"false", "true"})
+    boolean jit;
+
+    private Path path;
+    private Chip8Machine machine;
+    private int frame;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Executed {
+        public long instructions;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            instructions = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void extract() {
+        path = BenchmarkRoms.extract(rom);
+    }
+
+    @Setup(Level.Iteration)
+    public void boot() throws IOException {
+        machine = new Chip8Machine();
+        machine.loadProgram(path);
+        machine.getScheduler().setInstructionsPerSecond(INSTRUCTIONS_PER_SECOND);
+        machine.getCPU().setJitEnabled(jit);
+        frame = 0;
+    }
+
+    // A ROM that crashes fails the trial rather than scoring
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public long run(Executed executed) {
+        Chip8CPU cpu = machine.getCPU();
+        long before = cpu.getCycles() - cpu.getIdleCycles();
+        for (int i = 0; i < FRAMES; i++) {
+            Chip8KeyScript.press(machine.getKeyboard(), ++frame);
+            machine.runFrame();
+        }
+        long ran = cpu.getCycles() - cpu.getIdleCycles() - before;
+        executed.instructions += ran;
+        return ran;
+    }
+}
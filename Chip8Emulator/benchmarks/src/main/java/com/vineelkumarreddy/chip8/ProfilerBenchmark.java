@@ -0,0 +1,92 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What Chip8Profiler costs. Runs the busiest bundled ROMs the way
+ * InterpreterBenchmark does, plain, compiled and with a profiler
+ * installed. The profiler runs on the pre-decoded interpreter, so the
+ * interpreter runner is its baseline and the JIT one shows what
+ * profiling gives up.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfilerBenchmark {
+
+    @Param({"BLINKY", "KALEID", "SYZYGY", "TETRIS"})
+    String rom;
+
+    @Param({"interpreter", "jit", "profiler"})
+    String runner;
+
+    private Path path;
+    private Chip8Machine machine;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void extract() {
+        path = BenchmarkRoms.extract(rom);
+    }
+
+    @Setup(Level.Iteration)
+    public void boot() throws IOException {
+        machine = new Chip8Machine();
+        machine.loadProgram(path);
+        machine.getScheduler().setInstructionsPerSecond(InterpreterBenchmark.INSTRUCTIONS_PER_SECOND);
+        machine.getCPU().setJitEnabled(runner.equals("jit"));
+        if (runner.equals("profiler"))
+            machine.getCPU().setProfiler(new Chip8Profiler());
+        frame = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(InterpreterBenchmark.FRAMES)
+    public long run(InterpreterBenchmark.Executed executed) {
+        Chip8CPU cpu = machine.getCPU();
+        long before = cpu.getCycles() - cpu.getIdleCycles();
+        for (int i = 0; i < InterpreterBenchmark.FRAMES; i++) {
+            Chip8KeyScript.press(machine.getKeyboard(), ++frame);
+            machine.runFrame();
+        }
+        long ran = cpu.getCycles() - cpu.getIdleCycles() - before;
+        executed.instructions += ran;
+        return ran;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Isolated Dxyn draws of the built in font sprites, moving across the
+ * screen so that the wrap-around path is exercised as well.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteBenchmark {
+
+    @Param({"1", "5", "15"})
+    int height;
+
+    private Chip8CPU cpu;
+    private int instruction;
+
+    @Setup
+    public void setup() {
+        cpu = new Chip8CPU(new Chip8Memory(), new Chip8Framebuffer(), new Chip8Keyboard());
+        instruction = 0xD010 | height; // Dxyn with x = V0, y = V1
+        cpu.I = 0;
+    }
+
+    @Benchmark
+    public int draw() {
+        cpu.V[0] = (cpu.V[0] + 3) & 0xff;
+        cpu.V[1] = (cpu.V[1] + 1) & 0xff;
+        cpu.execute(instruction);
+        return cpu.V[0xF];
+    }
+}
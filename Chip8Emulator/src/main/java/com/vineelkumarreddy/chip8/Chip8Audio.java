@@ -0,0 +1,178 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays the Chip8 buzzer on its own thread. The tone is a 128 bit
+ * pattern played at a pitch dependent bit rate, as XO-CHIP defines it;
+ * plain Chip8 programs get a fixed square wave pattern. Whenever the
+ * pattern or the pitch changes, one loop of it is rendered into a sample
+ * buffer ahead of time, so the audio thread only copies samples out in
+ * small chunks while the gate set by the scheduler from ST is open.
+ *
+ * Only a blocking sink such as a sound card gets the audio thread. Any
+ * other sink, a WAV file say, is written one frame of samples at a time
+ * from update, so its length follows emulated time and not the wall
+ * clock: 60 frames always make exactly one second of audio.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Audio implements AutoCloseable {
+    public static final int SAMPLE_RATE = 44100;
+    // About 5.8 ms, the latency of a gate change is a few of these
+    public static final int CHUNK_SAMPLES = 256;
+    public static final int FRAME_SAMPLES = SAMPLE_RATE / Chip8Scheduler.FRAMES_PER_SECOND;
+    private static final byte AMPLITUDE = 48;
+
+    // A 500 Hz square wave at the default pitch
+    static final long DEFAULT_PATTERN = 0xF0F0F0F0F0F0F0F0L;
+    static final int DEFAULT_PITCH = 64;
+
+    private final Chip8AudioSink sink;
+    private volatile boolean playing;
+    private volatile boolean running;
+    private volatile Tone tone = new Tone(DEFAULT_PATTERN, DEFAULT_PATTERN, DEFAULT_PITCH);
+    private volatile Thread thread;
+    // Where the tone is, only touched by whichever thread renders
+    private int phase;
+    private byte frame[];
+
+    public Chip8Audio(Chip8AudioSink sink) {
+        this.sink = sink;
+    }
+
+    // Starts the audio thread for a blocking sink, other sinks need none
+    public synchronized void start() {
+        if (thread != null || !sink.isBlocking())
+            return;
+        running = true;
+        thread = new Thread(this::play, "chip8-audio");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    // Called by the scheduler at the end of every frame, from the
+    // emulation thread. A sink that does not block gets the samples for
+    // the next frame right here.
+    public void update(boolean playing, long patternHigh, long patternLow, int pitch) {
+        Tone tone = this.tone;
+        if (tone.patternHigh != patternHigh || tone.patternLow != patternLow || tone.pitch != pitch)
+            this.tone = new Tone(patternHigh, patternLow, pitch);
+        if (!sink.isBlocking()) {
+            this.playing = playing;
+            if (frame == null)
+                frame = new byte[FRAME_SAMPLES];
+            render(frame, FRAME_SAMPLES);
+            sink.write(frame, FRAME_SAMPLES);
+        }
+        else if (this.playing != playing) {
+            this.playing = playing;
+            Thread thread = this.thread;
+            if (playing && thread != null)
+                LockSupport.unpark(thread);
+        }
+    }
+
+    // Closes the gate for a frame that did not run, such as while the
+    // debugger holds the machine. No time passes, so nothing is written.
+    public void silence() {
+        playing = false;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    // The tone while the gate is open, silence while it is closed
+    private void render(byte out[], int length) {
+        if (!playing) {
+            Arrays.fill(out, 0, length, (byte) 0);
+            return;
+        }
+        byte samples[] = tone.samples;
+        for (int i = 0; i < length; i++) {
+            if (phase >= samples.length)
+                phase = 0;
+            out[i] = samples[phase++];
+        }
+    }
+
+    private void play() {
+        byte chunk[] = new byte[CHUNK_SAMPLES];
+        try {
+            while (running) {
+                if (!playing) {
+                    // A sound card just runs dry, so there is nothing to
+                    // do until the gate opens again
+                    LockSupport.park(this);
+                    continue;
+                }
+                render(chunk, CHUNK_SAMPLES);
+                sink.write(chunk, CHUNK_SAMPLES);
+            }
+        }
+        catch (RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    // Stops the audio thread and closes the sink
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = this.thread;
+            this.thread = null;
+        }
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sink.close();
+    }
+
+    // One loop of a pattern rendered at the output sample rate
+    private static final class Tone {
+        final long patternHigh, patternLow;
+        final int pitch;
+        final byte samples[];
+
+        Tone(long patternHigh, long patternLow, int pitch) {
+            this.patternHigh = patternHigh;
+            this.patternLow = patternLow;
+            this.pitch = pitch;
+            // 4000 bits per second at pitch 64, an octave every 48 steps
+            double bitRate = 4000 * Math.pow(2, (pitch - 64) / 48.0);
+            samples = new byte[Math.max(1, (int) Math.round(128 * SAMPLE_RATE / bitRate))];
+            for (int i = 0; i < samples.length; i++) {
+                int bit = (int) (i * bitRate / SAMPLE_RATE) & 127;
+                long word = bit < 64 ? patternHigh : patternLow;
+                samples[i] = (word << (bit & 63)) < 0 ? AMPLITUDE : 0;
+            }
+        }
+    }
+}
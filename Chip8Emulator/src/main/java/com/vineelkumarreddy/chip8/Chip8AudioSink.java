@@ -0,0 +1,65 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import javax.sound.sampled.LineUnavailableException;
+
+/**
+ * Where Chip8Audio sends its samples: 8 bit signed mono PCM at
+ * Chip8Audio.SAMPLE_RATE.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public interface Chip8AudioSink extends AutoCloseable {
+
+    void write(byte samples[], int length);
+
+    // A sink that blocks like a sound card paces the audio thread by
+    // itself, any other sink is fed a frame of samples per emulated frame
+    default boolean isBlocking() {
+        return false;
+    }
+
+    @Override
+    void close();
+
+    // The default sound device
+    static Chip8AudioSink line() throws LineUnavailableException {
+        return new Chip8LineSink();
+    }
+
+    // The default sound device, or a sink that drops everything when
+    // there is none, as on a headless host
+    static Chip8AudioSink lineOrDiscard() {
+        try {
+            return line();
+        }
+        catch (LineUnavailableException | IllegalArgumentException ex) {
+            return discard();
+        }
+    }
+
+    static Chip8AudioSink discard() {
+        return new Chip8NullSink();
+    }
+
+    static Chip8AudioSink wav(Path path) throws IOException {
+        return new Chip8WavSink(path);
+    }
+}
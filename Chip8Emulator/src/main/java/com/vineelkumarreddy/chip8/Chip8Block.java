@@ -0,0 +1,33 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * A basic block of Chip8 code compiled to JVM bytecode. Subclasses are
+ * generated at runtime by Chip8BlockCompiler.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+abstract class Chip8Block {
+    int start;        // address of the first instruction
+    int end;          // address just past the last instruction
+    int instructions; // number of Chip8 instructions executed per run
+    int code[];       // the instructions the block was compiled from
+
+    // Executes the whole block and returns the next PC
+    abstract int execute(Chip8CPU cpu);
+}
@@ -0,0 +1,679 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds the basic block starting at an address and turns it into a hidden
+ * class extending Chip8Block.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+class Chip8BlockCompiler {
+    static final int MAX_BLOCK_LENGTH = 64;
+
+    private static final String CPU = "com/vineelkumarreddy/chip8/Chip8CPU";
+    private static final String BLOCK = "com/vineelkumarreddy/chip8/Chip8Block";
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // Locals of the generated execute(Chip8CPU) method. V0-VF and I are
+    // kept in locals for the whole block and only written back at the end.
+    private static final int CPU_LOCAL = 1, V_LOCAL = 2, I_LOCAL = 3, REG_LOCAL = 4;
+    private static final int TMP_LOCAL = 20, MAX_LOCALS = 21;
+    private static final int I_MASK = 1 << 16;
+
+    // How the compiler treats an instruction
+    private static final int NOT_COMPILABLE = 0, STRAIGHT = 1, TERMINATOR = 2;
+
+    private final Chip8Memory ram;
+    private final Chip8Mode mode;
+
+    Chip8BlockCompiler(Chip8Memory ram, Chip8Mode mode) {
+        this.ram = ram;
+        this.mode = mode;
+    }
+
+    // Returns null when the very first instruction cannot be compiled
+    Chip8Block compile(int start) {
+        int instructions[] = new int[MAX_BLOCK_LENGTH];
+        int count = 0, used = 0, written = 0;
+        boolean terminated = false;
+        int pc = start;
+        while (count < MAX_BLOCK_LENGTH && pc + 1 < ram.size()) {
+            int instruction = ram.getWord(pc);
+            int kind = classify(instruction, mode);
+            // Jumps closing a polling loop are left to the interpreter,
+            // which can tell when the loop has gone idle
+            if (kind == NOT_COMPILABLE || Chip8IdleLoop.isCandidate(ram, pc))
+                break;
+            instructions[count++] = instruction;
+            used |= reads(instruction) | writes(instruction);
+            written |= writes(instruction);
+            pc += 2;
+            if (kind == TERMINATOR) {
+                terminated = true;
+                break;
+            }
+        }
+        if (count == 0)
+            return null;
+
+        // In XO-CHIP a skip jumps over F000 nnnn as a whole, so how far it
+        // goes depends on the next word, which then becomes part of the block
+        int skipLength = 2;
+        boolean guarded = terminated && mode == Chip8Mode.XO_CHIP && isSkip(instructions[count - 1]);
+        if (guarded && ram.getWord(pc) == 0xF000)
+            skipLength = 4;
+
+        Code code = new Code();
+        ConstantPool pool = code.pool;
+        // int[] v = cpu.V; then pull every register the block touches into a local
+        code.aload(CPU_LOCAL);
+        code.op(0xb4).u2(pool.fieldRef(CPU, "V", "[I")); // getfield
+        code.astore(V_LOCAL);
+        for (int r = 0; r < 16; r++) {
+            if ((used & (1 << r)) != 0) {
+                code.aload(V_LOCAL);
+                code.iconst(r);
+                code.op(0x2e); // iaload
+                code.istore(REG_LOCAL + r);
+            }
+        }
+        if ((used & I_MASK) != 0) {
+            code.aload(CPU_LOCAL);
+            code.op(0xb4).u2(pool.fieldRef(CPU, "I", "I")); // getfield
+            code.istore(I_LOCAL);
+        }
+
+        int last = terminated ? count - 1 : count;
+        for (int i = 0; i < last; i++)
+            emitStraight(code, instructions[i]);
+
+        // Write back whatever changed before leaving the block
+        for (int r = 0; r < 16; r++) {
+            if ((written & (1 << r)) != 0) {
+                code.aload(V_LOCAL);
+                code.iconst(r);
+                code.iload(REG_LOCAL + r);
+                code.op(0x4f); // iastore
+            }
+        }
+        if ((written & I_MASK) != 0) {
+            code.aload(CPU_LOCAL);
+            code.iload(I_LOCAL);
+            code.op(0xb5).u2(pool.fieldRef(CPU, "I", "I")); // putfield
+        }
+
+        if (terminated)
+            emitTerminator(code, instructions[count - 1], pc - 2, skipLength);
+        else
+            code.iconst(pc); // fall through into the instruction we could not compile
+        code.op(0xac); // ireturn
+
+        Chip8Block block = define("Chip8CompiledBlock_" + Integer.toHexString(start), code);
+        block.start = start;
+        block.instructions = count;
+        block.code = Arrays.copyOf(instructions, guarded ? count + 1 : count);
+        if (guarded)
+            block.code[count] = ram.getWord(pc);
+        block.end = start + 2 * block.code.length;
+        return block;
+    }
+
+    // Whether the JIT asks for a new block after the instruction
+    static boolean endsBlock(int instruction, Chip8Mode mode) {
+        return classify(instruction, mode) != STRAIGHT;
+    }
+
+    private static boolean isSkip(int instruction) {
+        int opcode = (instruction >> 12) & 0xf;
+        return opcode == 3 || opcode == 4 || opcode == 5 || opcode == 9;
+    }
+
+    private static int classify(int instruction, Chip8Mode mode) {
+        int x = (instruction >> 8) & 0xf;
+        int n = instruction & 0xf;
+        switch ((instruction >> 12) & 0xf) {
+            case 0:
+                return instruction == 0x00EE ? TERMINATOR : NOT_COMPILABLE;
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+                return TERMINATOR;
+            case 0xB: // SUPER-CHIP reads Bxnn as JP Vx, left to the interpreter
+                return mode == Chip8Mode.SUPER_CHIP ? NOT_COMPILABLE : TERMINATOR;
+            case 5:
+            case 9:
+                return n == 0 ? TERMINATOR : NOT_COMPILABLE;
+            case 6:
+            case 7:
+            case 0xA:
+                return STRAIGHT;
+            case 8:
+                if (n <= 3)
+                    return STRAIGHT;
+                // The flag forms are left to the interpreter when Vx is VF itself
+                if (n == 4 || n == 5 || n == 6 || n == 7 || n == 0xE)
+                    return x == 0xF ? NOT_COMPILABLE : STRAIGHT;
+                return NOT_COMPILABLE;
+            case 0xF:
+                switch (instruction & 0xff) {
+                    case 0x07:
+                    case 0x15:
+                    case 0x18:
+                    case 0x1E:
+                    case 0x29:
+                        return STRAIGHT;
+                }
+                return NOT_COMPILABLE;
+            default: // C, D and E need random, display and keyboard
+                return NOT_COMPILABLE;
+        }
+    }
+
+    private static int reads(int instruction) {
+        int x = 1 << ((instruction >> 8) & 0xf);
+        int y = 1 << ((instruction >> 4) & 0xf);
+        switch ((instruction >> 12) & 0xf) {
+            case 3:
+            case 4:
+            case 7:
+                return x;
+            case 5:
+            case 9:
+                return x | y;
+            case 8:
+                switch (instruction & 0xf) {
+                    case 0:
+                        return y;
+                    case 6:
+                    case 0xE:
+                        return x;
+                    default:
+                        return x | y;
+                }
+            case 0xB:
+                return 1;
+            case 0xF:
+                switch (instruction & 0xff) {
+                    case 0x15:
+                    case 0x18:
+                    case 0x29:
+                        return x;
+                    case 0x1E:
+                        return x | I_MASK;
+                }
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    private static int writes(int instruction) {
+        int x = 1 << ((instruction >> 8) & 0xf);
+        switch ((instruction >> 12) & 0xf) {
+            case 6:
+            case 7:
+                return x;
+            case 8:
+                return (instruction & 0xf) <= 3 ? x : x | (1 << 0xF);
+            case 0xA:
+                return I_MASK;
+            case 0xF:
+                switch (instruction & 0xff) {
+                    case 0x07:
+                        return x;
+                    case 0x1E:
+                    case 0x29:
+                        return I_MASK;
+                }
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    // The generated code has no branches at all: flags and skips are
+    // computed arithmetically, which keeps the blocks free of stack map
+    // frames and easy for HotSpot to optimize.
+    private static void emitStraight(Code code, int instruction) {
+        int vx = REG_LOCAL + ((instruction >> 8) & 0xf);
+        int vy = REG_LOCAL + ((instruction >> 4) & 0xf);
+        int vf = REG_LOCAL + 0xF;
+        int kk = instruction & 0xff;
+        int nnn = instruction & 0xfff;
+        ConstantPool pool = code.pool;
+        switch ((instruction >> 12) & 0xf) {
+            case 6: // 6xkk - LD Vx, byte
+                code.iconst(kk);
+                code.istore(vx);
+                break;
+            case 7: // 7xkk - ADD Vx, byte
+                code.iload(vx);
+                code.iconst(kk);
+                code.op(0x60); // iadd
+                code.iconst(0xff);
+                code.op(0x7e); // iand
+                code.istore(vx);
+                break;
+            case 8:
+                emit8(code, instruction & 0xf, vx, vy, vf);
+                break;
+            case 0xA: // Annn - LD I, addr
+                code.iconst(nnn);
+                code.istore(I_LOCAL);
+                break;
+            case 0xF:
+                switch (kk) {
+                    case 0x07: // Fx07 - LD Vx, DT
+                        code.aload(CPU_LOCAL);
+                        code.op(0xb4).u2(pool.fieldRef(CPU, "DT", "I")); // getfield
+                        code.istore(vx);
+                        break;
+                    case 0x15: // Fx15 - LD DT, Vx
+                        code.aload(CPU_LOCAL);
+                        code.iload(vx);
+                        code.op(0xb5).u2(pool.fieldRef(CPU, "DT", "I")); // putfield
+                        break;
+                    case 0x18: // Fx18 - LD ST, Vx
+                        code.aload(CPU_LOCAL);
+                        code.iload(vx);
+                        code.op(0xb5).u2(pool.fieldRef(CPU, "ST", "I")); // putfield
+                        break;
+                    case 0x1E: // Fx1E - ADD I, Vx
+                        code.iload(I_LOCAL);
+                        code.iload(vx);
+                        code.op(0x60); // iadd
+                        code.istore(I_LOCAL);
+                        break;
+                    case 0x29: // Fx29 - LD F, Vx
+                        code.iload(vx);
+                        code.iconst(5);
+                        code.op(0x68); // imul
+                        code.istore(I_LOCAL);
+                        break;
+                }
+                break;
+        }
+    }
+
+    // Mirrors the 8xyN handlers of Chip8CPU.dispatch
+    private static void emit8(Code code, int n, int vx, int vy, int vf) {
+        switch (n) {
+            case 0: // 8xy0 - LD Vx, Vy
+                code.iload(vy);
+                code.istore(vx);
+                break;
+            case 1: // 8xy1 - OR Vx, Vy
+            case 2: // 8xy2 - AND Vx, Vy
+            case 3: // 8xy3 - XOR Vx, Vy
+                code.iload(vx);
+                code.iload(vy);
+                code.op(n == 1 ? 0x80 : n == 2 ? 0x7e : 0x82); // ior, iand, ixor
+                code.istore(vx);
+                break;
+            case 4: // 8xy4 - ADD Vx, Vy, VF = carry
+                code.iload(vx);
+                code.iload(vy);
+                code.op(0x60); // iadd
+                code.istore(TMP_LOCAL);
+                code.iload(TMP_LOCAL);
+                code.iconst(0xff);
+                code.op(0x7e); // iand
+                code.istore(vx);
+                code.iload(TMP_LOCAL);
+                code.iconst(8);
+                code.op(0x7c); // iushr
+                code.istore(vf);
+                break;
+            case 5: // 8xy5 - SUB Vx, Vy, VF = Vx >= Vy
+            case 7: // 8xy7 - SUBN Vx, Vy, VF = Vy >= Vx
+                int a = n == 5 ? vx : vy, b = n == 5 ? vy : vx;
+                code.iload(a);
+                code.iload(b);
+                code.op(0x64); // isub
+                code.iconst(31);
+                code.op(0x7c); // iushr, 1 when a - b borrows
+                code.iconst(1);
+                code.op(0x82); // ixor
+                code.istore(TMP_LOCAL);
+                code.iload(a);
+                code.iload(b);
+                code.op(0x64); // isub
+                code.iconst(0xff);
+                code.op(0x7e); // iand
+                code.istore(vx);
+                code.iload(TMP_LOCAL);
+                code.istore(vf);
+                break;
+            case 6: // 8xy6 - SHR Vx
+                code.iload(vx);
+                code.iconst(1);
+                code.op(0x7e); // iand
+                code.istore(TMP_LOCAL);
+                code.iload(vx);
+                code.iconst(1);
+                code.op(0x7a); // ishr
+                code.istore(vx);
+                code.iload(TMP_LOCAL);
+                code.istore(vf);
+                break;
+            case 0xE: // 8xyE - SHL Vx
+                code.iload(vx);
+                code.iconst(7);
+                code.op(0x7a); // ishr
+                code.iconst(1);
+                code.op(0x7e); // iand
+                code.istore(TMP_LOCAL);
+                code.iload(vx);
+                code.iconst(1);
+                code.op(0x78); // ishl
+                code.iconst(0xff);
+                code.op(0x7e); // iand
+                code.istore(vx);
+                code.iload(TMP_LOCAL);
+                code.istore(vf);
+                break;
+        }
+    }
+
+    // Leaves the next PC on the operand stack
+    private static void emitTerminator(Code code, int instruction, int pc, int skipLength) {
+        int vx = REG_LOCAL + ((instruction >> 8) & 0xf);
+        int vy = REG_LOCAL + ((instruction >> 4) & 0xf);
+        int kk = instruction & 0xff;
+        int nnn = instruction & 0xfff;
+        ConstantPool pool = code.pool;
+        switch ((instruction >> 12) & 0xf) {
+            case 0: // 00EE - RET
+                code.aload(CPU_LOCAL);
+                code.op(0x59); // dup
+                code.op(0xb4).u2(pool.fieldRef(CPU, "SP", "I")); // getfield
+                code.iconst(1);
+                code.op(0x64); // isub
+                code.op(0xb5).u2(pool.fieldRef(CPU, "SP", "I")); // putfield
+                code.aload(CPU_LOCAL);
+                code.op(0xb4).u2(pool.fieldRef(CPU, "stack", "[I")); // getfield
+                code.aload(CPU_LOCAL);
+                code.op(0xb4).u2(pool.fieldRef(CPU, "SP", "I")); // getfield
+                code.op(0x2e); // iaload
+                break;
+            case 1: // 1nnn - JP addr
+                code.iconst(nnn);
+                break;
+            case 2: // 2nnn - CALL addr
+                code.aload(CPU_LOCAL);
+                code.op(0xb4).u2(pool.fieldRef(CPU, "stack", "[I")); // getfield
+                code.aload(CPU_LOCAL);
+                code.op(0xb4).u2(pool.fieldRef(CPU, "SP", "I")); // getfield
+                code.iconst(pc + 2);
+                code.op(0x4f); // iastore
+                code.aload(CPU_LOCAL);
+                code.op(0x59); // dup
+                code.op(0xb4).u2(pool.fieldRef(CPU, "SP", "I")); // getfield
+                code.iconst(1);
+                code.op(0x60); // iadd
+                code.op(0xb5).u2(pool.fieldRef(CPU, "SP", "I")); // putfield
+                code.iconst(nnn);
+                break;
+            case 3: // 3xkk - SE Vx, byte
+            case 4: // 4xkk - SNE Vx, byte
+            case 5: // 5xy0 - SE Vx, Vy
+            case 9: // 9xy0 - SNE Vx, Vy
+                int opcode = (instruction >> 12) & 0xf;
+                boolean skipOnEqual = opcode == 3 || opcode == 5;
+                // pc + 2 + skipLength * (equal ? 1 : 0), or the other way round
+                // for SNE. ((a ^ b) - 1) >>> 31 is 1 exactly when a == b for bytes.
+                code.iconst(skipOnEqual ? pc + 2 : pc + 2 + skipLength);
+                code.iload(vx);
+                if (opcode == 3 || opcode == 4)
+                    code.iconst(kk);
+                else
+                    code.iload(vy);
+                code.op(0x82); // ixor
+                code.iconst(1);
+                code.op(0x64); // isub
+                code.iconst(31);
+                code.op(0x7c); // iushr
+                code.iconst(skipLength == 4 ? 2 : 1);
+                code.op(0x78); // ishl
+                code.op(skipOnEqual ? 0x60 : 0x64); // iadd or isub
+                break;
+            case 0xB: // Bnnn - JP V0, addr
+                code.iload(REG_LOCAL);
+                code.iconst(nnn);
+                code.op(0x60); // iadd
+                break;
+        }
+    }
+
+    private static Chip8Block define(String name, Code code) {
+        ConstantPool pool = code.pool;
+        String className = "com/vineelkumarreddy/chip8/" + name;
+        int thisClass = pool.classRef(className);
+        int superClass = pool.classRef(BLOCK);
+        int superInit = pool.methodRef(BLOCK, "<init>", "()V");
+        int codeName = pool.utf8("Code");
+        int initName = pool.utf8("<init>");
+        int initType = pool.utf8("()V");
+        int executeName = pool.utf8("execute");
+        int executeType = pool.utf8("(L" + CPU + ";)I");
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + code.bytes.size());
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);  // minor version
+            out.writeShort(61); // Java 17
+            out.writeShort(pool.count);
+            pool.bytes.writeTo(out);
+            out.writeShort(0x0030); // ACC_FINAL | ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces
+            out.writeShort(0); // fields
+            out.writeShort(2); // methods
+
+            // <init>() { super(); }
+            out.writeShort(0);
+            out.writeShort(initName);
+            out.writeShort(initType);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + 5);
+            out.writeShort(1); // max stack
+            out.writeShort(1); // max locals
+            out.writeInt(5);
+            out.writeByte(0x2a); // aload_0
+            out.writeByte(0xb7); // invokespecial
+            out.writeShort(superInit);
+            out.writeByte(0xb1); // return
+            out.writeShort(0);
+            out.writeShort(0);
+
+            // int execute(Chip8CPU cpu)
+            out.writeShort(0);
+            out.writeShort(executeName);
+            out.writeShort(executeType);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + code.bytes.size());
+            out.writeShort(8); // max stack
+            out.writeShort(MAX_LOCALS);
+            out.writeInt(code.bytes.size());
+            code.bytes.writeTo(out);
+            out.writeShort(0);
+            out.writeShort(0);
+
+            out.writeShort(0); // class attributes
+
+            MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(bytes.toByteArray(), true);
+            return (Chip8Block) hidden.findConstructor(hidden.lookupClass(),
+                                                       MethodType.methodType(void.class)).invoke();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        catch (Throwable ex) {
+            throw new IllegalStateException("Could not define " + name, ex);
+        }
+    }
+
+    // Bytecode of a single method along with the constant pool it refers to
+    private static final class Code {
+        final ConstantPool pool = new ConstantPool();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        void iconst(int value) {
+            if (value >= -1 && value <= 5)
+                op(0x03 + value); // iconst_<n>
+            else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+                op(0x10).op(value & 0xff); // bipush
+            else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+                op(0x11).u2(value & 0xffff); // sipush
+            else
+                op(0x13).u2(pool.integer(value)); // ldc_w
+        }
+
+        void iload(int local) {
+            op(0x15).op(local);
+        }
+
+        void istore(int local) {
+            op(0x36).op(local);
+        }
+
+        void aload(int local) {
+            op(0x19).op(local);
+        }
+
+        void astore(int local) {
+            op(0x3a).op(local);
+        }
+    }
+
+    private static final class ConstantPool {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        int count = 1;
+
+        int utf8(String value) {
+            Integer index = entries.get("U" + value);
+            if (index != null)
+                return index;
+            try {
+                out.writeByte(1);
+                out.writeUTF(value);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return add("U" + value);
+        }
+
+        int integer(int value) {
+            Integer index = entries.get("I" + value);
+            if (index != null)
+                return index;
+            write(3, value >>> 16, value & 0xffff);
+            return add("I" + value);
+        }
+
+        int classRef(String name) {
+            Integer index = entries.get("C" + name);
+            if (index != null)
+                return index;
+            int nameIndex = utf8(name);
+            try {
+                out.writeByte(7);
+                out.writeShort(nameIndex);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return add("C" + name);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            String key = "M" + tag + owner + "." + name + ":" + descriptor;
+            Integer index = entries.get(key);
+            if (index != null)
+                return index;
+            int ownerIndex = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            write(tag, ownerIndex, nameAndType);
+            return add(key);
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            String key = "N" + name + ":" + descriptor;
+            Integer index = entries.get(key);
+            if (index != null)
+                return index;
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            write(12, nameIndex, descriptorIndex);
+            return add(key);
+        }
+
+        private void write(int tag, int first, int second) {
+            try {
+                out.writeByte(tag);
+                out.writeShort(first);
+                out.writeShort(second);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private int add(String key) {
+            entries.put(key, count);
+            return count++;
+        }
+    }
+}
@@ -14,11 +14,8 @@
  */
 package com.vineelkumarreddy.chip8;
 
-import java.awt.Toolkit;
 import java.util.Random;
-import java.util.Timer;
-import java.util.TimerTask;
-import javax.swing.JOptionPane;
+import java.util.random.RandomGenerator;
 
 /**
  * @author Vineel Kumar Reddy Kovvuri
@@ -26,32 +23,123 @@ import javax.swing.JOptionPane;
  * @date 19-03-2016
  */
 public class Chip8CPU {
-    private int V[] = new int[16]; //8bit each
-    private int I;  //16bit
-    private int DT; //8bit
-    private int ST; //8bit
-    private int PC; //16bit program counter
-    private int SP; //8bit stack pointer
-    private int stack[] = new int[16]; //16bit each
-
-    private final Chip8Display display;
+    // Package visible so that compiled blocks (see Chip8Jit) can reach them
+    int V[] = new int[16]; //8bit each
+    int I;  //16bit
+    int DT; //8bit
+    int ST; //8bit
+    int PC; //16bit program counter
+    int SP; //8bit stack pointer
+    int stack[] = new int[16]; //16bit each
+    int flags[] = new int[16]; // SUPER-CHIP RPL user flags, see Fx75 and Fx85
+    // XO-CHIP audio pattern, 128 bits, and its pitch, see Chip8Audio
+    long patternHigh = Chip8Audio.DEFAULT_PATTERN;
+    long patternLow = Chip8Audio.DEFAULT_PATTERN;
+    int pitch = Chip8Audio.DEFAULT_PITCH;
+
+    private final Chip8Mode mode;
+    // XO-CHIP skips jump over F000 nnnn as a whole
+    private final boolean longInstructions;
+    private final Display display;
     private final Chip8Keyboard keyboard;
     private final Chip8Memory ram;
 
-    private final int DT_FREQUENCY = 60; //60 hz
-    private final int ST_FREQUENCY = 60; //60 hz
-    private final int HZ = 1000; // 60hz => 60 times in 1sec or in 1000 milliseconds
-    Random random = new Random();
-
-    public Chip8CPU(Chip8Memory ram, Chip8Display display, Chip8Keyboard keyboard) {
+    // Source of Cxkk, seeded so a run can be reproduced, see setSeed
+    RandomGenerator random;
+    private long seed;
+    // Instructions accounted for since power on, idle ones included
+    long cycles;
+
+    // Set once the program is stuck in a loop it can never leave, such
+    // as a jump to itself, see idleLoop
+    boolean halted;
+    // Set when the program starts polling, ends the current runCycles
+    boolean idle;
+    // Instructions skipped because the program was idle, and the part of
+    // them spent halted or parked in Fx0A
+    long idleCycles;
+    long haltedCycles;
+    long keyWaitCycles;
+    private long draws;
+    private long collisions;
+    // Register a pending Fx0A stores the key in, -1 when not waiting
+    int keyWaitRegister = -1;
+    // Chip8Keyboard.getLastPress when the wait started
+    private long keyWaitPress;
+
+    // Pre-decoded program memory used by the interpreter
+    private final Chip8Decoder decoder;
+    private final Chip8IdleLoop idleLoop;
+    // Optional JIT tier, null when running purely interpreted
+    private Chip8Jit jit;
+    // Sees every instruction when set, see runMonitored
+    private Chip8Monitor monitor;
+    // Counts every instruction when set, see runProfiled
+    private Chip8Profiler profiler;
+    // Where the JIT should compile ahead of time, see preload
+    private int blockLeaders[];
+
+    public Chip8CPU(Chip8Memory ram, Display display, Chip8Keyboard keyboard) {
+        this(ram, display, keyboard, Chip8Mode.CHIP8);
+    }
+
+    // ram and display must have been created for the same mode
+    public Chip8CPU(Chip8Memory ram, Display display, Chip8Keyboard keyboard, Chip8Mode mode) {
         this.ram = ram;
         this.display = display;
         this.keyboard = keyboard;
+        this.mode = mode;
+        this.longInstructions = mode == Chip8Mode.XO_CHIP;
+        this.decoder = new Chip8Decoder(ram, mode);
+        this.idleLoop = new Chip8IdleLoop(ram, keyboard);
+        setSeed(new Random().nextLong());
 
         // This is the default load address of the program for Chip8 CPU
         PC = 0x200;
     }
 
+    // See fork
+    private Chip8CPU(Chip8CPU parent, Chip8Memory ram, Display display, Chip8Keyboard keyboard) {
+        this.ram = ram;
+        this.display = display;
+        this.keyboard = keyboard;
+        this.mode = parent.mode;
+        this.longInstructions = parent.longInstructions;
+        this.decoder = parent.decoder.fork(ram);
+        this.idleLoop = new Chip8IdleLoop(ram, keyboard);
+        System.arraycopy(parent.V, 0, V, 0, V.length);
+        I = parent.I;
+        DT = parent.DT;
+        ST = parent.ST;
+        PC = parent.PC;
+        SP = parent.SP;
+        System.arraycopy(parent.stack, 0, stack, 0, stack.length);
+        System.arraycopy(parent.flags, 0, flags, 0, flags.length);
+        patternHigh = parent.patternHigh;
+        patternLow = parent.patternLow;
+        pitch = parent.pitch;
+        random = Chip8Random.copyOf(parent.random);
+        seed = parent.seed;
+        cycles = parent.cycles;
+        halted = parent.halted;
+        idleCycles = parent.idleCycles;
+        haltedCycles = parent.haltedCycles;
+        keyWaitCycles = parent.keyWaitCycles;
+        draws = parent.draws;
+        collisions = parent.collisions;
+        keyWaitRegister = parent.keyWaitRegister;
+        keyWaitPress = parent.keyWaitPress;
+        blockLeaders = parent.blockLeaders;
+    }
+
+    // A CPU in the same state running on forks of our memory, display and
+    // keyboard. It shares the decoded program with us page by page and
+    // starts out interpreted, the JIT, the monitor and the profiler are not
+    // carried over.
+    Chip8CPU fork(Chip8Memory ram, Display display, Chip8Keyboard keyboard) {
+        return new Chip8CPU(this, ram, display, keyboard);
+    }
+
     private void delay(int nmillis) {
         try {
             Thread.sleep(nmillis);
@@ -61,412 +149,547 @@ public class Chip8CPU {
         }
     }
 
-    private void printInstructionDecodeCycle(int n) {
-        System.out.printf("%x%n", n);
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = new Chip8Random(seed);
     }
 
-    public void run() {
-        display.setVisible(true);
-        //ram.dumpRAM();
-        setupAndStartTimers();
-        int previousInstruction = 0xffff;
-        while (true) {
-            int instruction = ram.getWord(PC);
-            if (detectBusyWaitInfiniteLoop(instruction, previousInstruction))
-                break;
-            incrementPC(); //fetched the instruction so move on
-            int opcode = (instruction >> 12) & 0xf;
-            switch (opcode) {
-                case 0:
-                    decode0(instruction);
-                    printInstructionDecodeCycle(0);
-                    break;
-                case 1:
-                    decode1(instruction);
-                    printInstructionDecodeCycle(1);
-                    break;
-                case 2:
-                    decode2(instruction);
-                    printInstructionDecodeCycle(2);
-                    break;
-                case 3:
-                    decode3(instruction);
-                    printInstructionDecodeCycle(3);
-                    break;
-                case 4:
-                    decode4(instruction);
-                    printInstructionDecodeCycle(4);
-                    break;
-                case 5:
-                    decode5(instruction);
-                    printInstructionDecodeCycle(5);
-                    break;
-                case 6:
-                    decode6(instruction);
-                    printInstructionDecodeCycle(6);
-                    break;
-                case 7:
-                    decode7(instruction);
-                    printInstructionDecodeCycle(7);
-                    break;
-                case 8:
-                    decode8(instruction);
-                    printInstructionDecodeCycle(8);
-                    break;
-                case 9:
-                    decode9(instruction);
-                    printInstructionDecodeCycle(9);
-                    break;
-                case 0xA:
-                    decodeA(instruction);
-                    printInstructionDecodeCycle(0xA);
-                    break;
-                case 0xB:
-                    decodeB(instruction);
-                    printInstructionDecodeCycle(0xB);
-                    break;
-                case 0xC:
-                    decodeC(instruction);
-                    printInstructionDecodeCycle(0xC);
-                    break;
-                case 0xD:
-                    decodeD(instruction);
-                    printInstructionDecodeCycle(0xD);
-                    break;
-                case 0xE:
-                    decodeE(instruction);
-                    printInstructionDecodeCycle(0xE);
-                    break;
-                case 0xF:
-                    decodeF(instruction);
-                    printInstructionDecodeCycle(0xF);
-                    break;
-            }
-            previousInstruction = instruction;
-        }
+    public long getSeed() {
+        return seed;
     }
 
-    private void incrementPC() {
-        PC += 2;
+    // Replaces the seeded generator, getSeed no longer describes it then.
+    // Only jumpable generators can be copied, which fork needs.
+    public void setRandom(RandomGenerator.JumpableGenerator random) {
+        this.random = random;
     }
 
-    private void decode0(int instruction) {
-        int opcodeArgs = instruction & 0xfff;
-        switch (opcodeArgs & 0xff) {
-            case 0xE0: // 00E0 - CLS
-                display.clear();
-                break;
-            case 0xEE: // 00EE - RET
-                PC = stack[--SP];
-                break;
-            default: //0nnn - SYS addr // not used.
-                break;
-        }
+    public long getCycles() {
+        return cycles;
     }
 
-    private void decode1(int instruction) {
-        int opcodeArgs = instruction & 0xfff;
-        PC = opcodeArgs; //1nnn - JP addr
+    public void setJitEnabled(boolean enabled) {
+        jit = enabled ? new Chip8Jit(ram, mode) : null;
+        if (jit != null && blockLeaders != null)
+            jit.precompile(blockLeaders);
     }
 
-    private void decode2(int instruction) {
-        int opcodeArgs = instruction & 0xfff;
-        stack[SP] = PC;
-        ++SP;
-        PC = opcodeArgs;  //2nnn - CALL addr
+    // Hands over what is already known about the program, which has to
+    // have been loaded into memory just before
+    void preload(Chip8RomAnalysis analysis) {
+        if (analysis.getMode() != mode)
+            throw new IllegalArgumentException("Analysis is for " + analysis.getMode() + ", not " + mode);
+        decoder.preload(analysis.addresses, analysis.entries);
+        blockLeaders = analysis.leaders;
+        if (jit != null)
+            jit.precompile(blockLeaders);
     }
 
-    private void decode3(int instruction) {
-        int reg = (instruction >> 8) & 0xf;
-        int value = instruction & 0xff;
-        if (V[reg] == value) {
-            incrementPC();  //3xkk - SE Vx, byte
+    // Runs the program in real time
+    public void run() {
+        //ram.dumpRAM();
+        Chip8Scheduler scheduler = new Chip8Scheduler(this);
+        try (Chip8Audio audio = new Chip8Audio(Chip8AudioSink.lineOrDiscard())) {
+            scheduler.setAudio(audio);
+            audio.start();
+            scheduler.run();
         }
     }
 
-    private void decode4(int instruction) {
-        int reg = (instruction >> 8) & 0xf;
-        int value = instruction & 0xff;
-        if (V[reg] != value) {
-            incrementPC();  //4xkk - SNE Vx, byte
-        }
+    // Setting a monitor switches runCycles to an instrumented loop,
+    // without one the normal loops pay nothing for it
+    public void setMonitor(Chip8Monitor monitor) {
+        this.monitor = monitor;
     }
 
-    private void decode5(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        if (V[regX] == V[regY]) {
-            incrementPC();  //5xy0 - SE Vx, Vy
-        }
+    public Chip8Monitor getMonitor() {
+        return monitor;
     }
 
-    private void decode6(int instruction) {
-        int reg = (instruction >> 8) & 0xf;
-        int value = instruction & 0xff;
-        V[reg] = value; //6xkk - LD Vx, byte
+    // Setting a profiler switches runCycles to the interpreter with the
+    // profiler's counters bumped inline. The JIT sits unused meanwhile.
+    public void setProfiler(Chip8Profiler profiler) {
+        this.profiler = profiler;
     }
 
-    private void decode7(int instruction) {
-        int reg = (instruction >> 8) & 0xf;
-        int value = (instruction & 0xff) + V[reg];
-        //7xkk - ADD Vx, byte
-        if (value > 255)
-            value -= 256;
-        V[reg] = value;
+    public Chip8Profiler getProfiler() {
+        return profiler;
     }
 
-    private void decode8(int instruction) {
-        int firstNibble = instruction & 0xf;
-        switch (firstNibble) {
-            case 0:
-                decode8_0(instruction);
-                break;
-            case 1:
-                decode8_1(instruction);
-                break;
-            case 2:
-                decode8_2(instruction);
-                break;
-            case 3:
-                decode8_3(instruction);
-                break;
-            case 4:
-                decode8_4(instruction);
-                break;
-            case 5:
-                decode8_5(instruction);
-                break;
-            case 6:
-                decode8_6(instruction);
-                break;
-            case 7:
-                decode8_7(instruction);
-                break;
-            case 0xE:
-                decode8_E(instruction);
-                break;
-        }
+    public Chip8Mode getMode() {
+        return mode;
     }
 
-    private void decode8_0(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        V[regX] = V[regY]; // 8xy0 - LD Vx, Vy
+    public Display getDisplay() {
+        return display;
     }
 
-    private void decode8_1(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        V[regX] |= V[regY]; // 8xy1 - OR Vx, Vy
+    public Chip8Keyboard getKeyboard() {
+        return keyboard;
     }
 
-    private void decode8_2(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        V[regX] &= V[regY]; // 8xy2 - AND Vx, Vy
+    // True while Fx0A waits for a key press that has not happened yet
+    public boolean isWaitingForKey() {
+        return keyWaitRegister >= 0 && keyboard.getLastPress() == keyWaitPress
+               && !keyboard.hasPendingEvents();
     }
 
-    private void decode8_3(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        V[regX] ^= V[regY]; // 8xy3 - XOR Vx, Vy
+    public boolean isHalted() {
+        return halted;
     }
 
-    private void decode8_4(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        V[regX] += V[regY]; // 8xy4 - ADD Vx, Vy
-        if (V[regX] > 255) {
-            V[0xF] = 1;
-            V[regX] -= 256;
-        }
-        else {
-            V[0xF] = 0;
-        }
+    public long getIdleCycles() {
+        return idleCycles;
     }
 
-    private void decode8_5(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        if (V[regX] > V[regY])
-            V[0xF] = 1;
-        else
-            V[0xF] = 0;
-        V[regX] -= V[regY]; // 8xy5 - SUB Vx, Vy
-        if (V[regX] < 0)
-            V[regX] += 256;
+    public long getHaltedCycles() {
+        return haltedCycles;
     }
 
-    private void decode8_6(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        V[0xF] = V[regX] & 0x1;
-        V[regX] >>= 1; // 8xy6 - SHR Vx {, Vy} // https://en.wikipedia.org/wiki/CHIP-8#cite_note-shift-2
+    public long getKeyWaitCycles() {
+        return keyWaitCycles;
     }
 
-    private void decode8_7(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        if (V[regX] < V[regY])
-            V[0xF] = 1;
+    // Dxyn executed, and how many of them collided
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getCollisions() {
+        return collisions;
+    }
+
+    // Runs the given number of instructions and returns how many were
+    // accounted for. Once the program is only polling for DT or a key the
+    // rest of the cycles are skipped, since they could not change anything
+    // before the next timer tick; they still count as run so the timers
+    // keep their pace.
+    public int runCycles(int cycles) {
+        int executed;
+        idle = false;
+        keyboard.applyPendingEvents(this.cycles);
+        if (halted) {
+            executed = 0;
+            haltedCycles += cycles;
+        }
+        else if (keyWaitRegister >= 0 && !keyWaitDone()) {
+            executed = 0;
+            keyWaitCycles += cycles;
+        }
+        else if (monitor != null)
+            executed = runMonitored(monitor, cycles);
+        else if (profiler != null)
+            executed = runProfiled(profiler, cycles);
+        else if (jit != null)
+            executed = jit.run(this, cycles);
         else
-            V[0xF] = 0;
-        V[regX] = V[regY] - V[regX]; // 8xy7 - SUBN Vx, Vy
-        if (V[regX] < 0)
-            V[regX] += 256;
-    }
-
-    private void decode8_E(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        V[0xF] = (V[regX] >> 7) & 0x1; //Most significant bit
-        V[regX] <<= 1; // 8xyE - SHL Vx {, Vy}
-        if (V[regX] > 255)
-            V[regX] -= 256;
-    }
-
-    private void decode9(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        if (V[regX] != V[regY]) {
-            incrementPC(); //9xy0 - SNE Vx, Vy
+            executed = runDecoded(cycles);
+        idleCycles += cycles - executed;
+        this.cycles += cycles;
+        return cycles;
+    }
+
+    private int runMonitored(Chip8Monitor monitor, int cycles) {
+        try {
+            for (int i = 0; i < cycles; i++) {
+                int pc = PC;
+                if (!monitor.beforeInstruction(this, pc))
+                    return i;
+                int instruction = ram.getWord(pc);
+                step();
+                monitor.afterInstruction(this, pc, instruction);
+                if (profiler != null)
+                    profiler.count(this, pc, instruction);
+                if (idle)
+                    return i + 1;
+            }
+        }
+        catch (RuntimeException ex) {
+            monitor.onException(this, ex);
+            throw ex;
         }
+        return cycles;
     }
 
-    private void decodeA(int instruction) {
-        int value = instruction & 0xfff;
-        I = value; // Annn - LD I, addr
+    // Fetches and executes a single instruction
+    public void step() {
+        decoder.sync();
+        int op = decoder.get(PC);
+        incrementPC(); //fetched the instruction so move on
+        dispatch(op);
     }
 
-    private void decodeB(int instruction) {
-        int value = instruction & 0xfff;
-        PC = V[0] + value; // Bnnn - JP V0, addr
+    // Executes a raw instruction that did not come from memory
+    void execute(int instruction) {
+        dispatch(Chip8Decoder.decode(instruction, mode));
     }
 
-    private void decodeC(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int value = instruction & 0xff;
-        int rnd = random.nextInt(255) & 0xff;
-        V[regX] = rnd & value; // Cxkk - RND Vx, byte
+    // The plain interpreter: a tight loop over the pre-decoded table.
+    // Only Fx33 and Fx55 write memory while it runs, and they resync
+    // the table themselves (see codeMayHaveChanged).
+    private int runDecoded(int cycles) {
+        decoder.sync();
+        for (int i = 0; i < cycles; i++) {
+            int op = decoder.get(PC);
+            incrementPC();
+            dispatch(op);
+            if (idle)
+                return i + 1;
+        }
+        return cycles;
     }
 
-    /*
-    Display is interesting and it deserves some explanation,
-    The way the instruction works is, given a starting pixel (Vx, Vy).
-    CPU first reads nibble number of bytes from the memory location
-    pointer by I register. Now each bit in each byte corresponds
-    to one pixel starting from (Vx, Vy). For example if jth bit
-    of ith byte is 1 then the pixel at display[Vx + j][Vy + i] XOR
-    with its previous value. This mechanism is also called
-    Stripping in the reference.
-     */
-    private void decodeD(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int regY = (instruction >> 4) & 0xf;
-        int height = (instruction >> 0) & 0xf;
-        V[0xF] = 0;
-        for (int i = 0; i < height; i++) {
-            int spriteLine = ram.getByte(I + i);
-            for (int j = 0; j < 8; j++) {
-                if ((spriteLine & 0x80) > 0) {
-                    if (display.setPixel(V[regX] + j, V[regY] + i)) {
-                        V[0xF] = 1;
-                    }
-                }
-                spriteLine <<= 1;
+    // runDecoded counting into the profiler's arrays. Only calls and
+    // returns reach into the profiler, to follow the call path.
+    private int runProfiled(Chip8Profiler profiler, int cycles) {
+        decoder.sync();
+        long counts[] = profiler.counts;
+        int mask = profiler.mask;
+        int i = 0;
+        try {
+            while (i < cycles) {
+                int pc = PC & mask;
+                if (counts[pc]++ == 0)
+                    profiler.firstSeen(pc, ram.getWord(pc));
+                i++;
+                int op = decoder.get(pc);
+                incrementPC();
+                dispatch(op);
+                int handler = op >>> 24;
+                if (handler == Chip8Decoder.CALL || handler == Chip8Decoder.RET)
+                    profiler.followCall(SP, handler == Chip8Decoder.CALL, Chip8Decoder.imm(op), i);
+                if (idle)
+                    break;
             }
         }
+        finally {
+            profiler.sliceFinished(i);
+        }
+        return i;
     }
 
-    private void decodeE(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int subCode = instruction & 0xff;
+    private void incrementPC() {
+        PC += 2;
+    }
 
-        if (subCode == 0x9E && keyboard.isChip8keyPressed(V[regX]))
-            incrementPC();
-        else if (subCode == 0xA1 && !keyboard.isChip8keyPressed(V[regX]))
-            incrementPC();
+    private void skip() {
+        if (longInstructions && ram.getWord(PC) == 0xF000)
+            PC += 4;
+        else
+            PC += 2;
     }
 
-    private void decodeF(int instruction) {
-        int regX = (instruction >> 8) & 0xf;
-        int subCode = instruction & 0xff;
-        switch (subCode) {
-            case 0x07: // Fx07 - LD Vx, DT
-                V[regX] = DT;
+    private void dispatch(int op) {
+        int x = Chip8Decoder.x(op);
+        int y = Chip8Decoder.y(op);
+        int imm = Chip8Decoder.imm(op);
+        switch (op >>> 24) {
+            case Chip8Decoder.CLS: // 00E0 - CLS
+                display.clear();
+                break;
+            case Chip8Decoder.RET: // 00EE - RET
+                PC = stack[--SP];
+                break;
+            case Chip8Decoder.SYS: //0nnn - SYS addr // not used.
+            case Chip8Decoder.NOP:
+                break;
+            case Chip8Decoder.JP:
+                PC = imm; //1nnn - JP addr
+                break;
+            case Chip8Decoder.JP_IDLE:
+                int jumpPc = PC - 2;
+                PC = imm; //1nnn - JP addr, closing a polling loop
+                idleLoop(jumpPc);
+                break;
+            case Chip8Decoder.CALL:
+                stack[SP] = PC;
+                ++SP;
+                PC = imm;  //2nnn - CALL addr
+                break;
+            case Chip8Decoder.SE_BYTE:
+                if (V[x] == imm)
+                    skip();  //3xkk - SE Vx, byte
+                break;
+            case Chip8Decoder.SNE_BYTE:
+                if (V[x] != imm)
+                    skip();  //4xkk - SNE Vx, byte
+                break;
+            case Chip8Decoder.SE_REG:
+                if (V[x] == V[y])
+                    skip();  //5xy0 - SE Vx, Vy
+                break;
+            case Chip8Decoder.LD_BYTE:
+                V[x] = imm; //6xkk - LD Vx, byte
+                break;
+            case Chip8Decoder.ADD_BYTE:
+                V[x] = (V[x] + imm) & 0xff; //7xkk - ADD Vx, byte
+                break;
+            case Chip8Decoder.LD_REG:
+                V[x] = V[y]; // 8xy0 - LD Vx, Vy
+                break;
+            case Chip8Decoder.OR:
+                V[x] |= V[y]; // 8xy1 - OR Vx, Vy
+                break;
+            case Chip8Decoder.AND:
+                V[x] &= V[y]; // 8xy2 - AND Vx, Vy
+                break;
+            case Chip8Decoder.XOR:
+                V[x] ^= V[y]; // 8xy3 - XOR Vx, Vy
+                break;
+            case Chip8Decoder.ADD_REG:
+                add(x, y);
+                break;
+            case Chip8Decoder.SUB:
+                sub(x, y);
+                break;
+            case Chip8Decoder.SHR:
+                shiftRight(x);
+                break;
+            case Chip8Decoder.SUBN:
+                subn(x, y);
                 break;
-            case 0x0A: // Fx0A - LD Vx, K
-                //TODO: What is the better way to take input
-                int key = Integer.parseInt(JOptionPane.showInputDialog("Enter key input:"), 16);
-                V[regX] = key;
+            case Chip8Decoder.SHL:
+                shiftLeft(x);
                 break;
-            case 0x15: // Fx15 - LD DT, Vx
-                DT = V[regX];
+            case Chip8Decoder.SNE_REG:
+                if (V[x] != V[y])
+                    skip(); //9xy0 - SNE Vx, Vy
                 break;
-            case 0x18: // Fx18 - LD ST, Vx
-                ST = V[regX];
+            case Chip8Decoder.LD_I:
+                I = imm; // Annn - LD I, addr
                 break;
-            case 0x1E: // Fx1E - ADD I, Vx
-                I += V[regX];
+            case Chip8Decoder.JP_V0:
+                PC = V[0] + imm; // Bnnn - JP V0, addr
                 break;
-            case 0x29: // Fx29 - LD F, Vx
-                I = V[regX] * 5; // because we have 5 rows to present a single hex char as sprit in spritHexChars
+            case Chip8Decoder.RND:
+                V[x] = random.nextInt(256) & imm; // Cxkk - RND Vx, byte
                 break;
-            case 0x33: // Fx33 - LD B, Vx
-                int n = V[regX];
+            case Chip8Decoder.DRW:
+                draw(x, y, imm);
+                break;
+            case Chip8Decoder.SKP:
+                if (keyboard.isChip8keyPressed(V[x])) // Ex9E - SKP Vx
+                    skip();
+                break;
+            case Chip8Decoder.SKNP:
+                if (!keyboard.isChip8keyPressed(V[x])) // ExA1 - SKNP Vx
+                    skip();
+                break;
+            case Chip8Decoder.LD_VX_DT: // Fx07 - LD Vx, DT
+                V[x] = DT;
+                break;
+            case Chip8Decoder.LD_VX_K: // Fx0A - LD Vx, K
+                waitForKey(x);
+                break;
+            case Chip8Decoder.LD_DT: // Fx15 - LD DT, Vx
+                DT = V[x];
+                break;
+            case Chip8Decoder.LD_ST: // Fx18 - LD ST, Vx
+                ST = V[x];
+                break;
+            case Chip8Decoder.ADD_I: // Fx1E - ADD I, Vx
+                I += V[x];
+                break;
+            case Chip8Decoder.LD_F: // Fx29 - LD F, Vx
+                I = V[x] * 5; // because we have 5 rows to present a single hex char as sprit in spritHexChars
+                break;
+            case Chip8Decoder.LD_B: // Fx33 - LD B, Vx
+                int n = V[x];
                 for (int i = 3; i > 0; i--) {
                     ram.setByte(I + i - 1, (n % 10));
                     n /= 10;
                 }
+                codeMayHaveChanged();
                 break;
-            case 0x55: // Fx55 - LD [I], Vx
-                for (int i = 0; i <= regX; i++)
+            case Chip8Decoder.LD_MEM: // Fx55 - LD [I], Vx
+                for (int i = 0; i <= x; i++)
                     ram.setByte(I + i, V[i] & 0xff);
+                if (longInstructions)
+                    I += x + 1;
+                codeMayHaveChanged();
                 break;
-            case 0x65: // Fx65 - LD Vx, [I]
-                for (int i = 0; i <= regX; i++)
+            case Chip8Decoder.LD_REGS: // Fx65 - LD Vx, [I]
+                for (int i = 0; i <= x; i++)
                     V[i] = ram.getByte(I + i);
+                if (longInstructions)
+                    I += x + 1;
+                break;
+            case Chip8Decoder.SCD: // 00Cn - SCD nibble
+                display.scrollDown(imm);
+                break;
+            case Chip8Decoder.SCU: // 00Dn - SCU nibble
+                display.scrollUp(imm);
+                break;
+            case Chip8Decoder.SCR: // 00FB - SCR
+                display.scrollRight(4);
+                break;
+            case Chip8Decoder.SCL: // 00FC - SCL
+                display.scrollLeft(4);
+                break;
+            case Chip8Decoder.EXIT: // 00FD - EXIT
+                halted = true;
+                idle = true;
+                break;
+            case Chip8Decoder.LOW: // 00FE - LOW
+                display.setHighResolution(false);
+                break;
+            case Chip8Decoder.HIGH: // 00FF - HIGH
+                display.setHighResolution(true);
+                break;
+            case Chip8Decoder.JP_VX:
+                PC = V[x] + imm; // Bxnn - JP Vx, addr
+                break;
+            case Chip8Decoder.LD_HF: // Fx30 - LD HF, Vx
+                I = Chip8Memory.LARGE_FONT_ADDRESS + (V[x] & 0xf) * 10;
+                break;
+            case Chip8Decoder.LD_R: // Fx75 - LD R, Vx
+                for (int i = 0; i <= x; i++)
+                    flags[i] = V[i];
+                break;
+            case Chip8Decoder.LD_VX_R: // Fx85 - LD Vx, R
+                for (int i = 0; i <= x; i++)
+                    V[i] = flags[i];
+                break;
+            case Chip8Decoder.SAVE: // 5xy2 - SAVE Vx - Vy
+                saveRange(x, y);
                 break;
+            case Chip8Decoder.LOAD: // 5xy3 - LOAD Vx - Vy
+                loadRange(x, y);
+                break;
+            case Chip8Decoder.LD_I_LONG: // F000 nnnn - LD I, long addr
+                I = imm;
+                incrementPC();
+                break;
+            case Chip8Decoder.PLANE: // Fn01 - PLANE n
+                display.selectPlanes(x);
+                break;
+            case Chip8Decoder.AUDIO: // F002 - AUDIO
+                patternHigh = patternLow = 0;
+                for (int i = 0; i < 8; i++) {
+                    patternHigh = patternHigh << 8 | ram.getByte(I + i);
+                    patternLow = patternLow << 8 | ram.getByte(I + 8 + i);
+                }
+                break;
+            case Chip8Decoder.PITCH: // Fx3A - PITCH Vx
+                pitch = V[x];
+                break;
+            default:
+                throw new IllegalStateException("Undecoded instruction at " + Integer.toHexString(PC - 2));
         }
     }
-    Timer delayTimer = new Timer("delayTimer");
-    Timer soundTimer = new Timer("soundTimer");
 
-    private void setupAndStartTimers() {
-        delayTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                if (DT > 0) {
-                    DT--;
-                    System.out.printf("DT %x %n", DT);
-                }
-            }
-        }, 0, HZ / DT_FREQUENCY);
-
-        soundTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                if (ST > 0) {
-                    Toolkit.getDefaultToolkit().beep();
-                    ST--;
-                    System.out.printf("ST %x %n", ST);
-                }
-            }
-        }, 0, HZ / ST_FREQUENCY);
+    // Fx0A does not block, it parks the CPU: runCycles does nothing until
+    // a key goes down after the wait started, only DT and ST keep going.
+    void waitForKey(int regX) {
+        keyWaitRegister = regX;
+        keyWaitPress = keyboard.getLastPress();
+        idle = true;
     }
 
-    // Detects jmp refering to same jmp address.
-    // Similar to while(1); not while(1){...}
-    private boolean detectBusyWaitInfiniteLoop(int instruction, int previousInstruction) {
-        int currentOpcode = (instruction >> 12) & 0xf;
-        int currentJumpAddress = (instruction >> 0) & 0xfff;
+    // Presses only ever land at the start of a runCycles call
+    private boolean keyWaitDone() {
+        long press = keyboard.getLastPress();
+        if (press == keyWaitPress)
+            return false;
+        V[keyWaitRegister] = (int) (press & 0xff);
+        keyWaitRegister = -1;
+        return true;
+    }
 
-        int previousOpcode = (previousInstruction >> 12) & 0xf;
-        int previousJumpAddress = (previousInstruction >> 0) & 0xfff;
+    // Vx up to Vy, or down to it when x > y, at I. I stays where it is.
+    private void saveRange(int regX, int regY) {
+        int step = regX <= regY ? 1 : -1;
+        for (int i = 0, r = regX; ; i++, r += step) {
+            ram.setByte(I + i, V[r]);
+            if (r == regY)
+                break;
+        }
+        codeMayHaveChanged();
+    }
 
-        if (currentOpcode == previousOpcode && currentOpcode == 0x1) { // Jmp instruction
-            return currentJumpAddress == previousJumpAddress;
+    private void loadRange(int regX, int regY) {
+        int step = regX <= regY ? 1 : -1;
+        for (int i = 0, r = regX; ; i++, r += step) {
+            V[r] = ram.getByte(I + i);
+            if (r == regY)
+                break;
         }
-        return false;
+    }
+
+    // Self modifying code: drop pre-decoded entries of written pages
+    private void codeMayHaveChanged() {
+        decoder.sync();
+    }
+
+    // Games wait for DT or a key in loops like Fx07, 3x00, 1nnn back. Once
+    // such a loop comes around without changing a register it would spin
+    // the same way until the next timer tick, so we stop there. A loop
+    // that reads neither DT nor keys, like while(1);, never ends.
+    private void idleLoop(int jumpPc) {
+        int state = idleLoop.check(this, jumpPc);
+        if (state == Chip8IdleLoop.BUSY)
+            return;
+        idle = true;
+        if (state == Chip8IdleLoop.STUCK)
+            halted = true;
+    }
+
+    // The flag is written last, so it wins when x is F, and an operand
+    // in VF is read before it changes
+    private void add(int regX, int regY) {
+        int sum = V[regX] + V[regY]; // 8xy4 - ADD Vx, Vy
+        V[regX] = sum & 0xff;
+        V[0xF] = sum >> 8;
+    }
+
+    private void sub(int regX, int regY) {
+        int difference = V[regX] - V[regY]; // 8xy5 - SUB Vx, Vy
+        V[regX] = difference & 0xff;
+        V[0xF] = difference >= 0 ? 1 : 0; // no borrow
+    }
+
+    private void shiftRight(int regX) {
+        int flag = V[regX] & 0x1;
+        V[regX] >>= 1; // 8xy6 - SHR Vx {, Vy} // https://en.wikipedia.org/wiki/CHIP-8#cite_note-shift-2
+        V[0xF] = flag;
+    }
+
+    private void subn(int regX, int regY) {
+        int difference = V[regY] - V[regX]; // 8xy7 - SUBN Vx, Vy
+        V[regX] = difference & 0xff;
+        V[0xF] = difference >= 0 ? 1 : 0; // no borrow
+    }
+
+    private void shiftLeft(int regX) {
+        int flag = (V[regX] >> 7) & 0x1; //Most significant bit
+        V[regX] = (V[regX] << 1) & 0xff; // 8xyE - SHL Vx {, Vy}
+        V[0xF] = flag;
+    }
+
+    /*
+    Display is interesting and it deserves some explanation,
+    The way the instruction works is, given a starting pixel (Vx, Vy).
+    CPU first reads nibble number of bytes from the memory location
+    pointer by I register. Now each bit in each byte corresponds
+    to one pixel starting from (Vx, Vy). For example if jth bit
+    of ith byte is 1 then the pixel at display[Vx + j][Vy + i] XOR
+    with its previous value. This mechanism is also called
+    Stripping in the reference. The display does a whole sprite
+    row at a time, see Chip8Framebuffer.drawSprite.
+     */
+    private void draw(int regX, int regY, int height) {
+        boolean collision = display.drawSprite(ram, I, V[regX], V[regY], height);
+        V[0xF] = collision ? 1 : 0;
+        draws++;
+        if (collision)
+            collisions++;
+    }
+
+    // One 60 Hz timer period, called by the scheduler on frame boundaries
+    public void tickTimers() {
+        if (DT > 0)
+            DT--;
+        if (ST > 0)
+            ST--;
     }
 }
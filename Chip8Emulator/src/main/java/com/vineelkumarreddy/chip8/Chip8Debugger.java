@@ -0,0 +1,405 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breakpoints, memory watchpoints, register conditions and stepping for
+ * one machine. The debugger is a Chip8Monitor that the scheduler only
+ * installs while there is something to watch for, so a machine without
+ * breakpoints runs its normal loops and pays nothing per instruction.
+ *
+ * Everything is checked just before an instruction runs: a breakpoint
+ * on its address, or a watchpoint on a byte it is about to read or
+ * write, suspends the machine with PC still at the instruction. Register
+ * conditions are checked after every instruction and stop before the
+ * next one once they turn true. A suspended machine runs no frames, so
+ * its timers and display stand still too.
+ *
+ * The control methods may be called from any thread; state is read back
+ * through describe() and the getters once the machine is suspended.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Debugger implements Chip8Monitor {
+
+    public enum Stop {
+        BREAKPOINT, WATCHPOINT, CONDITION, STEP, PAUSE
+    }
+
+    // Register number of I for conditions, 0-15 are V0-VF
+    public static final int REGISTER_I = 16;
+
+    private static final int RUN = 0, STEP = 1, STEP_OVER = 2;
+
+    private final Chip8Machine machine;
+    private final Chip8Memory ram;
+    private final int mask;
+    private final CopyOnWriteArrayList<Chip8DebugListener> listeners = new CopyOnWriteArrayList<>();
+
+    // One bit per address. Replaced, never changed, when edited.
+    private volatile long breakpoints[];
+    private volatile long readWatches[];
+    private volatile long writeWatches[];
+    private volatile int breakpointCount, watchCount;
+    // register << 16 | value
+    private volatile int conditions[] = new int[0];
+
+    private volatile boolean suspended;
+    private volatile Stop requested;
+    private volatile int stepMode = RUN;
+    private volatile int stepOverPc, stepOverSp;
+    // Lets the instruction we stopped at run when execution continues
+    private volatile boolean resuming;
+    private volatile Stop stop;
+    private volatile int stopPc;
+
+    // CPU thread only: which conditions held after the last instruction,
+    // and the monitor we took the place of
+    private int matchedConditions[];
+    private boolean matched[];
+    private Chip8Monitor delegate;
+
+    // See Chip8Machine.getDebugger
+    Chip8Debugger(Chip8Machine machine) {
+        this.machine = machine;
+        this.ram = machine.getMemory();
+        this.mask = ram.size() - 1;
+        int words = (ram.size() + 63) >> 6;
+        breakpoints = new long[words];
+        readWatches = new long[words];
+        writeWatches = new long[words];
+    }
+
+    public synchronized void addBreakpoint(int address) {
+        if (!isSet(breakpoints, address & mask)) {
+            breakpoints = with(breakpoints, address, 1, true);
+            breakpointCount++;
+        }
+    }
+
+    public synchronized void removeBreakpoint(int address) {
+        if (isSet(breakpoints, address & mask)) {
+            breakpoints = with(breakpoints, address, 1, false);
+            breakpointCount--;
+        }
+    }
+
+    // Stops before any instruction that reads or writes, as asked, one of
+    // the length bytes from address on. Only the CPU's own accesses are
+    // seen: sprites, BCD, register loads and stores and XO-CHIP audio.
+    public synchronized void watch(int address, int length, boolean reads, boolean writes) {
+        if (reads)
+            readWatches = with(readWatches, address, length, true);
+        if (writes)
+            writeWatches = with(writeWatches, address, length, true);
+        watchCount = count(readWatches) + count(writeWatches);
+    }
+
+    public synchronized void unwatch(int address, int length) {
+        readWatches = with(readWatches, address, length, false);
+        writeWatches = with(writeWatches, address, length, false);
+        watchCount = count(readWatches) + count(writeWatches);
+    }
+
+    // Stops once register, 0-15 for V0-VF or REGISTER_I, becomes value
+    public synchronized void addCondition(int register, int value) {
+        if (register < 0 || register > REGISTER_I)
+            throw new IllegalArgumentException("No register " + register);
+        int conditions[] = this.conditions;
+        int condition = register << 16 | (value & 0xffff);
+        for (int c : conditions) {
+            if (c == condition)
+                return;
+        }
+        int added[] = Arrays.copyOf(conditions, conditions.length + 1);
+        added[conditions.length] = condition;
+        this.conditions = added;
+    }
+
+    public synchronized void removeCondition(int register, int value) {
+        int condition = register << 16 | (value & 0xffff);
+        this.conditions = Arrays.stream(conditions).filter(c -> c != condition).toArray();
+    }
+
+    // Removes every breakpoint, watchpoint and condition
+    public synchronized void clear() {
+        breakpoints = new long[breakpoints.length];
+        readWatches = new long[readWatches.length];
+        writeWatches = new long[writeWatches.length];
+        breakpointCount = 0;
+        watchCount = 0;
+        conditions = new int[0];
+    }
+
+    // Suspends before the next instruction
+    public synchronized void pause() {
+        if (!suspended)
+            requested = Stop.PAUSE;
+    }
+
+    public synchronized void resume() {
+        proceed(RUN);
+    }
+
+    // Runs exactly one instruction and suspends again
+    public synchronized void step() {
+        proceed(STEP);
+    }
+
+    // Like step, but a 2nnn runs until its subroutine has returned, unless
+    // something else stops it first
+    public synchronized void stepOver() {
+        if (suspended && (ram.getWord(stopPc) & 0xf000) == 0x2000) {
+            stepOverPc = (stopPc + 2) & mask;
+            stepOverSp = machine.getCPU().SP;
+            proceed(STEP_OVER);
+        }
+        else
+            proceed(STEP);
+    }
+
+    private void proceed(int mode) {
+        if (!suspended)
+            return;
+        stepMode = mode;
+        resuming = true;
+        suspended = false;
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    // Waits until the machine is suspended, false on timeout
+    public synchronized boolean awaitSuspended(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!suspended) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0)
+                return false;
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return true;
+    }
+
+    // Why and where the machine last stopped
+    public Stop getStop() {
+        return stop;
+    }
+
+    public int getStopPc() {
+        return stopPc;
+    }
+
+    // 0-15 for V0-VF or REGISTER_I. Only meaningful while suspended.
+    public int getRegister(int register) {
+        Chip8CPU cpu = machine.getCPU();
+        return register == REGISTER_I ? cpu.I : cpu.V[register];
+    }
+
+    public void addListener(Chip8DebugListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Chip8DebugListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Registers, timers, the stack and the next instruction as text
+    public String describe() {
+        Chip8CPU cpu = machine.getCPU();
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("PC=%04X I=%04X SP=%X DT=%02X ST=%02X%n", cpu.PC, cpu.I, cpu.SP, cpu.DT, cpu.ST));
+        for (int r = 0; r < 16; r++)
+            text.append(String.format(r == 15 ? "V%X=%02X%n" : "V%X=%02X ", r, cpu.V[r]));
+        text.append("stack");
+        for (int i = 0; i < cpu.SP && i < cpu.stack.length; i++)
+            text.append(String.format(" %04X", cpu.stack[i]));
+        text.append(String.format("%n%04X: %s%n", cpu.PC, Chip8Disassembler.disassemble(ram.getWord(cpu.PC), ram.getWord(cpu.PC + 2), cpu.getMode())));
+        return text.toString();
+    }
+
+    // Called by the scheduler before every frame. The debugger is only the
+    // CPU's monitor while it has something to do, and passes everything on
+    // to the monitor it replaced.
+    void syncMonitor(Chip8CPU cpu) {
+        // A halted or waiting CPU runs no instructions to stop before
+        Stop requested = this.requested;
+        if (requested != null && !suspended && (cpu.isHalted() || cpu.isWaitingForKey()))
+            suspend(requested, cpu.PC);
+        boolean active = suspended || requested != null || stepMode != RUN
+                         || breakpointCount > 0 || watchCount > 0 || conditions.length > 0;
+        Chip8Monitor monitor = cpu.getMonitor();
+        if (active && monitor != this) {
+            delegate = monitor;
+            cpu.setMonitor(this);
+        }
+        else if (!active && monitor == this) {
+            cpu.setMonitor(delegate);
+            delegate = null;
+        }
+    }
+
+    @Override
+    public boolean beforeInstruction(Chip8CPU cpu, int pc) {
+        if (suspended)
+            return false;
+        if (resuming)
+            resuming = false;
+        else {
+            Stop stop = check(cpu, pc);
+            if (stop != null) {
+                suspend(stop, pc);
+                return false;
+            }
+        }
+        Chip8Monitor delegate = this.delegate;
+        return delegate == null || delegate.beforeInstruction(cpu, pc);
+    }
+
+    private Stop check(Chip8CPU cpu, int pc) {
+        Stop requested = this.requested;
+        if (requested != null)
+            return requested;
+        int stepMode = this.stepMode;
+        if (stepMode == STEP || (stepMode == STEP_OVER && pc == stepOverPc && cpu.SP == stepOverSp))
+            return Stop.STEP;
+        if (breakpointCount > 0 && isSet(breakpoints, pc & mask))
+            return Stop.BREAKPOINT;
+        if (watchCount > 0 && touchesWatch(cpu, ram.getWord(pc)))
+            return Stop.WATCHPOINT;
+        return null;
+    }
+
+    private void suspend(Stop stop, int pc) {
+        synchronized (this) {
+            requested = null;
+            stepMode = RUN;
+            this.stop = stop;
+            stopPc = pc;
+            suspended = true;
+            notifyAll();
+        }
+        for (Chip8DebugListener listener : listeners)
+            listener.suspended(this, stop, pc);
+    }
+
+    // Works out the bytes the instruction is about to access from I and
+    // its operands, rather than hooking every memory access
+    private boolean touchesWatch(Chip8CPU cpu, int instruction) {
+        int x = (instruction >> 8) & 0xf;
+        int y = (instruction >> 4) & 0xf;
+        int n = instruction & 0xf;
+        int kk = instruction & 0xff;
+        boolean xo = cpu.getMode() == Chip8Mode.XO_CHIP;
+        switch (instruction >> 12) {
+            case 0x5:
+                if (xo && n == 2)
+                    return overlaps(writeWatches, cpu.I, Math.abs(x - y) + 1);
+                if (xo && n == 3)
+                    return overlaps(readWatches, cpu.I, Math.abs(x - y) + 1);
+                return false;
+            case 0xD:
+                int size = n == 0 && cpu.getMode().isExtended() ? 32 : n;
+                if (xo)
+                    size *= Integer.bitCount(machine.getDisplay().getSelectedPlanes());
+                return overlaps(readWatches, cpu.I, size);
+            case 0xF:
+                if (instruction == 0xF002 && xo)
+                    return overlaps(readWatches, cpu.I, 16);
+                if (kk == 0x33)
+                    return overlaps(writeWatches, cpu.I, 3);
+                if (kk == 0x55)
+                    return overlaps(writeWatches, cpu.I, x + 1);
+                if (kk == 0x65)
+                    return overlaps(readWatches, cpu.I, x + 1);
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private boolean overlaps(long watches[], int address, int length) {
+        for (int i = 0; i < length; i++) {
+            if (isSet(watches, (address + i) & mask))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void afterInstruction(Chip8CPU cpu, int pc, int instruction) {
+        int conditions[] = this.conditions;
+        if (conditions.length > 0)
+            checkConditions(cpu, conditions);
+        Chip8Monitor delegate = this.delegate;
+        if (delegate != null)
+            delegate.afterInstruction(cpu, pc, instruction);
+    }
+
+    // A condition stops the machine when it turns true, not for as long
+    // as it stays true
+    private void checkConditions(Chip8CPU cpu, int conditions[]) {
+        boolean fresh = conditions != matchedConditions;
+        if (fresh) {
+            matchedConditions = conditions;
+            matched = new boolean[conditions.length];
+        }
+        for (int i = 0; i < conditions.length; i++) {
+            int register = conditions[i] >>> 16;
+            int value = register == REGISTER_I ? cpu.I : cpu.V[register];
+            boolean now = value == (conditions[i] & 0xffff);
+            if (now && !matched[i] && !fresh && requested == null)
+                requested = Stop.CONDITION;
+            matched[i] = now;
+        }
+    }
+
+    @Override
+    public void onException(Chip8CPU cpu, RuntimeException ex) {
+        Chip8Monitor delegate = this.delegate;
+        if (delegate != null)
+            delegate.onException(cpu, ex);
+    }
+
+    private static boolean isSet(long bits[], int address) {
+        return (bits[address >> 6] & (1L << address)) != 0;
+    }
+
+    private long[] with(long bits[], int address, int length, boolean on) {
+        long copy[] = bits.clone();
+        for (int i = 0; i < length; i++) {
+            int a = (address + i) & mask;
+            if (on)
+                copy[a >> 6] |= 1L << a;
+            else
+                copy[a >> 6] &= ~(1L << a);
+        }
+        return copy;
+    }
+
+    private static int count(long bits[]) {
+        int count = 0;
+        for (long word : bits)
+            count += Long.bitCount(word);
+        return count;
+    }
+}
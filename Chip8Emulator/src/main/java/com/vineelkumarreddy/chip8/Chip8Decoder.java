@@ -0,0 +1,337 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.Arrays;
+
+/**
+ * Pre-decoded view of program memory. Every address maps to one int
+ * holding a handler index and the operands already pulled out of the
+ * instruction:
+ *
+ *   bits 24-31 handler, 20-23 x, 16-19 y, 0-15 immediate (nnn, kk or n)
+ *
+ * Entries are decoded the first time PC reaches them and are cleared
+ * again when the page they live in is written. The table is split into
+ * the same pages as memory, so a fork shares them until it decodes or
+ * clears something of its own.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8Decoder {
+    // Handler indexes, 0 marks an entry that has not been decoded yet
+    static final int UNDECODED = 0;
+    static final int CLS = 1, RET = 2, SYS = 3, JP = 4, CALL = 5;
+    static final int SE_BYTE = 6, SNE_BYTE = 7, SE_REG = 8, LD_BYTE = 9, ADD_BYTE = 10;
+    static final int LD_REG = 11, OR = 12, AND = 13, XOR = 14, ADD_REG = 15;
+    static final int SUB = 16, SHR = 17, SUBN = 18, SHL = 19, SNE_REG = 20;
+    static final int LD_I = 21, JP_V0 = 22, RND = 23, DRW = 24, SKP = 25, SKNP = 26;
+    static final int LD_VX_DT = 27, LD_VX_K = 28, LD_DT = 29, LD_ST = 30, ADD_I = 31;
+    static final int LD_F = 32, LD_B = 33, LD_MEM = 34, LD_REGS = 35;
+    static final int NOP = 36; // anything the mode does not define
+    static final int JP_IDLE = 37; // 1nnn closing a polling loop, see Chip8IdleLoop
+    // SUPER-CHIP
+    static final int SCD = 38, SCR = 39, SCL = 40, EXIT = 41, LOW = 42, HIGH = 43;
+    static final int JP_VX = 44, LD_HF = 45, LD_R = 46, LD_VX_R = 47;
+    // XO-CHIP
+    static final int SCU = 48, SAVE = 49, LOAD = 50, LD_I_LONG = 51, PLANE = 52;
+    static final int AUDIO = 53, PITCH = 54;
+
+    private static final int PAGE_MASK = Chip8Memory.PAGE_SIZE - 1;
+    private static final int EMPTY_PAGE[] = new int[Chip8Memory.PAGE_SIZE];
+
+    private final Chip8Memory ram;
+    private final Chip8Mode mode;
+    // Entries by address, pages not owned may be shared with forks
+    private final int pages[][];
+    private final boolean owned[];
+    private final int mask;
+    // Memory generations the table was last checked against
+    private int generation;
+    private final int pageGenerations[];
+
+    Chip8Decoder(Chip8Memory ram, Chip8Mode mode) {
+        this.ram = ram;
+        this.mode = mode;
+        this.pages = new int[ram.size() >> Chip8Memory.PAGE_SHIFT][];
+        Arrays.fill(pages, EMPTY_PAGE);
+        this.owned = new boolean[pages.length];
+        this.mask = ram.size() - 1;
+        this.pageGenerations = new int[pages.length];
+        sync();
+    }
+
+    private Chip8Decoder(Chip8Decoder parent, Chip8Memory ram) {
+        this.ram = ram;
+        this.mode = parent.mode;
+        this.pages = parent.pages.clone();
+        this.owned = new boolean[pages.length];
+        this.mask = parent.mask;
+        this.generation = parent.generation;
+        this.pageGenerations = parent.pageGenerations.clone();
+        Arrays.fill(parent.owned, false);
+    }
+
+    // A decoder for a fork of our memory, see Chip8Memory.fork
+    Chip8Decoder fork(Chip8Memory ram) {
+        return new Chip8Decoder(this, ram);
+    }
+
+    static int x(int op) {
+        return (op >>> 20) & 0xf;
+    }
+
+    static int y(int op) {
+        return (op >>> 16) & 0xf;
+    }
+
+    static int imm(int op) {
+        return op & 0xffff;
+    }
+
+    // Returns the decoded entry for address, decoding it if needed
+    int get(int address) {
+        address &= mask;
+        int op = pages[address >> Chip8Memory.PAGE_SHIFT][address & PAGE_MASK];
+        if (op == UNDECODED) {
+            op = decode(ram.getWord(address), mode);
+            if (op >>> 24 == JP && Chip8IdleLoop.isCandidate(ram, address))
+                op = (JP_IDLE << 24) | imm(op);
+            else if (op >>> 24 == LD_I_LONG)
+                op |= ram.getWord(address + 2); // F000 nnnn
+            set(address, op);
+        }
+        return op;
+    }
+
+    private void set(int address, int op) {
+        writablePage(address >> Chip8Memory.PAGE_SHIFT)[address & PAGE_MASK] = op;
+    }
+
+    private int[] writablePage(int page) {
+        if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+        return pages[page];
+    }
+
+    // Installs entries decoded elsewhere from the same memory contents,
+    // see Chip8RomAnalysis
+    void preload(int addresses[], int entries[]) {
+        sync();
+        for (int i = 0; i < addresses.length; i++)
+            set(addresses[i] & mask, entries[i]);
+    }
+
+    // Clears the entries of every page written since the last call.
+    // Cheap when nothing was written, which is almost always.
+    void sync() {
+        if (ram.getGeneration() == generation)
+            return;
+        generation = ram.getGeneration();
+        for (int page = 0; page < pageGenerations.length; page++) {
+            int pageGeneration = ram.getPageGeneration(page);
+            if (pageGeneration == pageGenerations[page])
+                continue;
+            pageGenerations[page] = pageGeneration;
+            int start = page << Chip8Memory.PAGE_SHIFT;
+            // The instructions just before the page read into it too (F000
+            // nnnn is four bytes), and a jump just after it may close a
+            // loop inside it
+            int end = start + Chip8Memory.PAGE_SIZE + 2 * Chip8IdleLoop.MAX_LOOP_LENGTH;
+            clear(Math.max(0, start - 3), Math.min(end, mask + 1));
+        }
+    }
+
+    // Whole pages go back to the shared empty one, nothing is copied
+    private void clear(int from, int to) {
+        for (int page = from >> Chip8Memory.PAGE_SHIFT; page <= (to - 1) >> Chip8Memory.PAGE_SHIFT; page++) {
+            int start = Math.max(from, page << Chip8Memory.PAGE_SHIFT) & PAGE_MASK;
+            int end = Math.min(to, (page + 1) << Chip8Memory.PAGE_SHIFT) - (page << Chip8Memory.PAGE_SHIFT);
+            if (start == 0 && end == Chip8Memory.PAGE_SIZE) {
+                pages[page] = EMPTY_PAGE;
+                owned[page] = false;
+            }
+            else if (pages[page] != EMPTY_PAGE)
+                Arrays.fill(writablePage(page), start, end, UNDECODED);
+        }
+    }
+
+    // A hash of what every instruction word decodes to in mode, and of
+    // the idle loop and block rules that tag entries and pick leaders.
+    // Entries decoded by a build with another fingerprint must not be
+    // installed, see Chip8RomAnalysis.
+    static int fingerprint(Chip8Mode mode) {
+        return Fingerprints.BY_MODE[mode.ordinal()];
+    }
+
+    // Worked out on first use, it takes a pass over all 64K words
+    private static final class Fingerprints {
+        static final int BY_MODE[] = new int[Chip8Mode.values().length];
+
+        static {
+            for (Chip8Mode mode : Chip8Mode.values()) {
+                int hash = 31 * JP_IDLE + Chip8IdleLoop.MAX_LOOP_LENGTH;
+                for (int instruction = 0; instruction <= 0xffff; instruction++) {
+                    // Idle loop tags and block leaders are cached with the
+                    // entries, so the rules behind them count too
+                    int rules = (Chip8IdleLoop.isPure(instruction) ? 1 : 0)
+                                | (Chip8BlockCompiler.endsBlock(instruction, mode) ? 2 : 0);
+                    hash = 31 * (31 * hash + decode(instruction, mode)) + rules;
+                }
+                BY_MODE[mode.ordinal()] = hash;
+            }
+        }
+    }
+
+    // F000 nnnn comes back with its immediate still to be filled in
+    static int decode(int instruction, Chip8Mode mode) {
+        int x = (instruction >> 8) & 0xf;
+        int y = (instruction >> 4) & 0xf;
+        int n = instruction & 0xf;
+        int kk = instruction & 0xff;
+        int nnn = instruction & 0xfff;
+        boolean extended = mode.isExtended();
+        boolean xo = mode == Chip8Mode.XO_CHIP;
+        switch ((instruction >> 12) & 0xf) {
+            case 0:
+                if (instruction == 0x00E0)
+                    return op(CLS, 0, 0, 0);
+                if (instruction == 0x00EE)
+                    return op(RET, 0, 0, 0);
+                if (extended) {
+                    if ((instruction & 0xfff0) == 0x00C0)
+                        return op(SCD, 0, 0, n);
+                    if (xo && (instruction & 0xfff0) == 0x00D0)
+                        return op(SCU, 0, 0, n);
+                    switch (instruction) {
+                        case 0x00FB:
+                            return op(SCR, 0, 0, 0);
+                        case 0x00FC:
+                            return op(SCL, 0, 0, 0);
+                        case 0x00FD:
+                            return op(EXIT, 0, 0, 0);
+                        case 0x00FE:
+                            return op(LOW, 0, 0, 0);
+                        case 0x00FF:
+                            return op(HIGH, 0, 0, 0);
+                    }
+                }
+                return op(SYS, 0, 0, nnn);
+            case 1:
+                return op(JP, 0, 0, nnn);
+            case 2:
+                return op(CALL, 0, 0, nnn);
+            case 3:
+                return op(SE_BYTE, x, 0, kk);
+            case 4:
+                return op(SNE_BYTE, x, 0, kk);
+            case 5:
+                if (xo && n == 2)
+                    return op(SAVE, x, y, 0);
+                if (xo && n == 3)
+                    return op(LOAD, x, y, 0);
+                return op(SE_REG, x, y, 0);
+            case 6:
+                return op(LD_BYTE, x, 0, kk);
+            case 7:
+                return op(ADD_BYTE, x, 0, kk);
+            case 8:
+                switch (n) {
+                    case 0:
+                        return op(LD_REG, x, y, 0);
+                    case 1:
+                        return op(OR, x, y, 0);
+                    case 2:
+                        return op(AND, x, y, 0);
+                    case 3:
+                        return op(XOR, x, y, 0);
+                    case 4:
+                        return op(ADD_REG, x, y, 0);
+                    case 5:
+                        return op(SUB, x, y, 0);
+                    case 6:
+                        return op(SHR, x, y, 0);
+                    case 7:
+                        return op(SUBN, x, y, 0);
+                    case 0xE:
+                        return op(SHL, x, y, 0);
+                }
+                break;
+            case 9:
+                return op(SNE_REG, x, y, 0);
+            case 0xA:
+                return op(LD_I, 0, 0, nnn);
+            case 0xB:
+                if (mode == Chip8Mode.SUPER_CHIP)
+                    return op(JP_VX, x, 0, nnn);
+                return op(JP_V0, 0, 0, nnn);
+            case 0xC:
+                return op(RND, x, 0, kk);
+            case 0xD:
+                return op(DRW, x, y, n);
+            case 0xE:
+                if (kk == 0x9E)
+                    return op(SKP, x, 0, 0);
+                if (kk == 0xA1)
+                    return op(SKNP, x, 0, 0);
+                break;
+            case 0xF:
+                if (xo && instruction == 0xF000)
+                    return op(LD_I_LONG, 0, 0, 0);
+                if (xo && kk == 0x01)
+                    return op(PLANE, x, 0, 0);
+                if (xo && instruction == 0xF002)
+                    return op(AUDIO, 0, 0, 0);
+                if (xo && kk == 0x3A)
+                    return op(PITCH, x, 0, 0);
+                if (extended && kk == 0x30)
+                    return op(LD_HF, x, 0, 0);
+                if (extended && kk == 0x75)
+                    return op(LD_R, x, 0, 0);
+                if (extended && kk == 0x85)
+                    return op(LD_VX_R, x, 0, 0);
+                switch (kk) {
+                    case 0x07:
+                        return op(LD_VX_DT, x, 0, 0);
+                    case 0x0A:
+                        return op(LD_VX_K, x, 0, 0);
+                    case 0x15:
+                        return op(LD_DT, x, 0, 0);
+                    case 0x18:
+                        return op(LD_ST, x, 0, 0);
+                    case 0x1E:
+                        return op(ADD_I, x, 0, 0);
+                    case 0x29:
+                        return op(LD_F, x, 0, 0);
+                    case 0x33:
+                        return op(LD_B, x, 0, 0);
+                    case 0x55:
+                        return op(LD_MEM, x, 0, 0);
+                    case 0x65:
+                        return op(LD_REGS, x, 0, 0);
+                }
+                break;
+        }
+        return op(NOP, 0, 0, 0);
+    }
+
+    private static int op(int handler, int x, int y, int imm) {
+        return (handler << 24) | (x << 20) | (y << 16) | imm;
+    }
+}
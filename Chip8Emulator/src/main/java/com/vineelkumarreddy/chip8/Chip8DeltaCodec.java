@@ -0,0 +1,109 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * XOR delta + run length encoding of two equally sized byte arrays.
+ * The XOR of two similar states is mostly zero, so the encoding is a
+ * list of (zero run, literal count, literal bytes) tokens with both
+ * counts written as unsigned LEB128 varints.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8DeltaCodec {
+
+    private Chip8DeltaCodec() {
+    }
+
+    // Upper bound of what encode can produce for length input bytes
+    static int maxEncodedLength(int length) {
+        return 2 * length + 16;
+    }
+
+    // Encodes current XOR previous (previous may be null, meaning zeros)
+    // into out and returns the number of bytes written
+    static int encode(byte previous[], byte current[], int length, byte out[]) {
+        return encode(previous, current, length, out, 0);
+    }
+
+    // Same, writing from out[offset] on
+    static int encode(byte previous[], byte current[], int length, byte out[], int offset) {
+        int pos = offset;
+        int i = 0;
+        while (i < length) {
+            int zeros = i;
+            while (i < length && xor(previous, current, i) == 0)
+                i++;
+            zeros = i - zeros;
+            if (i == length && zeros > 0)
+                break; // trailing zeros are implied
+            int literalStart = i;
+            // A literal run ends at the first pair of zero bytes, single
+            // zeros are cheaper to carry inside the literal
+            while (i < length && (xor(previous, current, i) != 0
+                                  || (i + 1 < length && xor(previous, current, i + 1) != 0)))
+                i++;
+            pos = putVarint(out, pos, zeros);
+            pos = putVarint(out, pos, i - literalStart);
+            for (int j = literalStart; j < i; j++)
+                out[pos++] = xor(previous, current, j);
+        }
+        return pos - offset;
+    }
+
+    // XORs the encoded delta onto target, turning previous into current
+    static void decode(byte delta[], int deltaLength, byte target[]) {
+        decode(delta, 0, deltaLength, target);
+    }
+
+    // Same, reading the delta from delta[offset] on
+    static void decode(byte delta[], int offset, int deltaLength, byte target[]) {
+        int pos = offset, end = offset + deltaLength;
+        int i = 0;
+        while (pos < end) {
+            long zeros = 0, literals = 0;
+            for (int shift = 0;; shift += 7) {
+                byte b = delta[pos++];
+                zeros |= (long) (b & 0x7f) << shift;
+                if (b >= 0)
+                    break;
+            }
+            for (int shift = 0;; shift += 7) {
+                byte b = delta[pos++];
+                literals |= (long) (b & 0x7f) << shift;
+                if (b >= 0)
+                    break;
+            }
+            i += (int) zeros;
+            for (int j = 0; j < literals; j++)
+                target[i++] ^= delta[pos++];
+        }
+    }
+
+    private static byte xor(byte previous[], byte current[], int i) {
+        return previous == null ? current[i] : (byte) (previous[i] ^ current[i]);
+    }
+
+    private static int putVarint(byte out[], int pos, int value) {
+        while ((value & ~0x7f) != 0) {
+            out[pos++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+}
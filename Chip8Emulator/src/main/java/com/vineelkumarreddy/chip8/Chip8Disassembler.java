@@ -0,0 +1,157 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * Turns instructions back into the mnemonics used in Chip8CPU comments.
+ * Instructions are read the way Chip8Decoder reads them in the given
+ * mode, so a word the mode does not define comes out as DW.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Disassembler {
+    // Passed as next when the word after the instruction is not known
+    public static final int UNKNOWN = -1;
+
+    private Chip8Disassembler() {
+    }
+
+    public static String disassemble(int instruction) {
+        return disassemble(instruction, UNKNOWN, Chip8Mode.CHIP8);
+    }
+
+    public static String disassemble(int instruction, Chip8Mode mode) {
+        return disassemble(instruction, UNKNOWN, mode);
+    }
+
+    // next is the word after the instruction, which only F000 nnnn reads
+    public static String disassemble(int instruction, int next, Chip8Mode mode) {
+        int op = Chip8Decoder.decode(instruction & 0xffff, mode);
+        int x = Chip8Decoder.x(op);
+        int y = Chip8Decoder.y(op);
+        int imm = Chip8Decoder.imm(op);
+        switch (op >>> 24) {
+            case Chip8Decoder.CLS:
+                return "CLS";
+            case Chip8Decoder.RET:
+                return "RET";
+            case Chip8Decoder.SYS:
+                return String.format("SYS %03X", imm);
+            case Chip8Decoder.JP:
+                return String.format("JP %03X", imm);
+            case Chip8Decoder.CALL:
+                return String.format("CALL %03X", imm);
+            case Chip8Decoder.SE_BYTE:
+                return String.format("SE V%X, %02X", x, imm);
+            case Chip8Decoder.SNE_BYTE:
+                return String.format("SNE V%X, %02X", x, imm);
+            case Chip8Decoder.SE_REG:
+                return String.format("SE V%X, V%X", x, y);
+            case Chip8Decoder.LD_BYTE:
+                return String.format("LD V%X, %02X", x, imm);
+            case Chip8Decoder.ADD_BYTE:
+                return String.format("ADD V%X, %02X", x, imm);
+            case Chip8Decoder.LD_REG:
+                return String.format("LD V%X, V%X", x, y);
+            case Chip8Decoder.OR:
+                return String.format("OR V%X, V%X", x, y);
+            case Chip8Decoder.AND:
+                return String.format("AND V%X, V%X", x, y);
+            case Chip8Decoder.XOR:
+                return String.format("XOR V%X, V%X", x, y);
+            case Chip8Decoder.ADD_REG:
+                return String.format("ADD V%X, V%X", x, y);
+            case Chip8Decoder.SUB:
+                return String.format("SUB V%X, V%X", x, y);
+            case Chip8Decoder.SHR:
+                return String.format("SHR V%X", x);
+            case Chip8Decoder.SUBN:
+                return String.format("SUBN V%X, V%X", x, y);
+            case Chip8Decoder.SHL:
+                return String.format("SHL V%X", x);
+            case Chip8Decoder.SNE_REG:
+                return String.format("SNE V%X, V%X", x, y);
+            case Chip8Decoder.LD_I:
+                return String.format("LD I, %03X", imm);
+            case Chip8Decoder.JP_V0:
+                return String.format("JP V0, %03X", imm);
+            case Chip8Decoder.RND:
+                return String.format("RND V%X, %02X", x, imm);
+            case Chip8Decoder.DRW:
+                return String.format("DRW V%X, V%X, %X", x, y, imm);
+            case Chip8Decoder.SKP:
+                return String.format("SKP V%X", x);
+            case Chip8Decoder.SKNP:
+                return String.format("SKNP V%X", x);
+            case Chip8Decoder.LD_VX_DT:
+                return String.format("LD V%X, DT", x);
+            case Chip8Decoder.LD_VX_K:
+                return String.format("LD V%X, K", x);
+            case Chip8Decoder.LD_DT:
+                return String.format("LD DT, V%X", x);
+            case Chip8Decoder.LD_ST:
+                return String.format("LD ST, V%X", x);
+            case Chip8Decoder.ADD_I:
+                return String.format("ADD I, V%X", x);
+            case Chip8Decoder.LD_F:
+                return String.format("LD F, V%X", x);
+            case Chip8Decoder.LD_B:
+                return String.format("LD B, V%X", x);
+            case Chip8Decoder.LD_MEM:
+                return String.format("LD [I], V%X", x);
+            case Chip8Decoder.LD_REGS:
+                return String.format("LD V%X, [I]", x);
+            // SUPER-CHIP
+            case Chip8Decoder.SCD:
+                return String.format("SCD %X", imm);
+            case Chip8Decoder.SCR:
+                return "SCR";
+            case Chip8Decoder.SCL:
+                return "SCL";
+            case Chip8Decoder.EXIT:
+                return "EXIT";
+            case Chip8Decoder.LOW:
+                return "LOW";
+            case Chip8Decoder.HIGH:
+                return "HIGH";
+            case Chip8Decoder.JP_VX:
+                return String.format("JP V%X, %03X", x, imm);
+            case Chip8Decoder.LD_HF:
+                return String.format("LD HF, V%X", x);
+            case Chip8Decoder.LD_R:
+                return String.format("LD R, V%X", x);
+            case Chip8Decoder.LD_VX_R:
+                return String.format("LD V%X, R", x);
+            // XO-CHIP
+            case Chip8Decoder.SCU:
+                return String.format("SCU %X", imm);
+            case Chip8Decoder.SAVE:
+                return String.format("SAVE V%X - V%X", x, y);
+            case Chip8Decoder.LOAD:
+                return String.format("LOAD V%X - V%X", x, y);
+            case Chip8Decoder.LD_I_LONG:
+                return next == UNKNOWN ? "LD I, long" : String.format("LD I, long %04X", next & 0xffff);
+            case Chip8Decoder.PLANE:
+                return String.format("PLANE %X", x);
+            case Chip8Decoder.AUDIO:
+                return "AUDIO";
+            case Chip8Decoder.PITCH:
+                return String.format("PITCH V%X", x);
+        }
+        return String.format("DW %04X", instruction & 0xffff);
+    }
+}
@@ -14,66 +14,211 @@
  */
 package com.vineelkumarreddy.chip8;
 
+import java.awt.BorderLayout;
+import java.awt.Canvas;
 import java.awt.Color;
+import java.awt.DisplayMode;
+import java.awt.Graphics;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
 import java.awt.HeadlessException;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import javax.swing.JFrame;
-import javax.swing.JPanel;
 
 /**
+ * Window showing a Chip8Framebuffer. The CPU never touches Swing: it
+ * publishes finished frames and a dedicated render thread runs them
+ * through a Chip8Scaler into one image, which is scaled to the window
+ * by a whole factor with a single drawImage at the screen's refresh
+ * rate. F11 toggles full screen, F10 cycles the filters and F9 turns
+ * phosphor persistence on and off.
+ *
  * @author Vineel Kumar Reddy Kovvuri
  * @version 1.0
  * @date 19-03-2016
  */
 public class Chip8Display extends JFrame {
     private final int frameWidth = 1000, frameHeight = 800;
+    // Renders a dark pixel takes to fade out with phosphor on
+    private static final int PERSISTENCE = 6;
 
-    //Chip8 display size
-    private final int displayWidth = 64, displayHeight = 32;
-    private JPanel display[][] = new JPanel[displayHeight][displayWidth];
+    private final Chip8Framebuffer framebuffer;
+    private final Canvas canvas = new Canvas();
+    // Replaced, never changed, so the render thread can pick it up
+    private volatile Chip8Scaler scaler = new Chip8Scaler(Chip8Filter.NEAREST, 1);
+    // Sized for the scaler output of the frame last uploaded
+    private BufferedImage image;
+    private int pixels[];
+    private int imageWidth, imageHeight;
+    private volatile boolean rendering;
+    private Thread renderer;
 
-    public Chip8Display(Chip8Keyboard keyboard) throws HeadlessException {
+    public Chip8Display(Chip8Keyboard keyboard, Chip8Framebuffer framebuffer) throws HeadlessException {
+        this.framebuffer = framebuffer;
         setTitle("Chip8 Emulator 1.0 - Vineel");
         setSize(frameWidth, frameHeight);
         addKeyListener(keyboard);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setVisible(false);
-        getContentPane().setLayout(null);
-        for (int i = 0; i < displayHeight; i++) {
-            for (int j = 0; j < displayWidth; j++) {
-                display[i][j] = new JPanel();
-                display[i][j].setBounds(100 + j * 12, 100 + i * 12, 12, 12);
-                display[i][j].setBackground(Color.BLACK);
-                this.getContentPane().add(display[i][j]);
+
+        allocateImage(framebuffer.getDisplayWidth(), framebuffer.getDisplayHeight());
+        KeyAdapter controls = new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                control(e.getKeyCode());
             }
-        }
-        // clear();
+        };
+        addKeyListener(controls);
+
+        // Painted actively by the render thread, not by Swing
+        canvas.setIgnoreRepaint(true);
+        canvas.setBackground(Color.BLACK);
+        canvas.addKeyListener(keyboard);
+        canvas.addKeyListener(controls);
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(canvas, BorderLayout.CENTER);
+    }
+
+    // Starts the render thread, the window must be visible
+    public void startRendering() {
+        if (rendering)
+            return;
+        canvas.createBufferStrategy(2);
+        rendering = true;
+        renderer = new Thread(this::renderLoop, "chip8-render");
+        renderer.setDaemon(true);
+        renderer.start();
+    }
+
+    public void stopRendering() {
+        rendering = false;
+    }
+
+    public void setFilter(Chip8Filter filter) {
+        Chip8Scaler scaler = this.scaler;
+        this.scaler = new Chip8Scaler(filter, 1, scaler.getPersistence(), Chip8Scaler.DEFAULT_PALETTE);
+    }
+
+    public Chip8Filter getFilter() {
+        return scaler.getFilter();
+    }
+
+    public void setPhosphor(boolean phosphor) {
+        Chip8Scaler scaler = this.scaler;
+        this.scaler = new Chip8Scaler(scaler.getFilter(), 1, phosphor ? PERSISTENCE : 0, Chip8Scaler.DEFAULT_PALETTE);
+    }
+
+    public boolean isPhosphor() {
+        return scaler.getPersistence() > 0;
+    }
+
+    // Must be called on the event dispatch thread
+    public void setFullScreen(boolean fullScreen) {
+        GraphicsDevice device = getGraphicsConfiguration().getDevice();
+        if (!device.isFullScreenSupported())
+            return;
+        device.setFullScreenWindow(fullScreen ? this : null);
     }
 
-    public boolean setPixel(int x, int y) {
-        if (x > displayWidth)
-            x -= displayWidth;
-        else if (x < 0)
-            x += displayWidth;
-
-        if (y > displayHeight)
-            y -= displayHeight;
-        else if (y < 0)
-            y += displayHeight;
-
-        Color bgcolor = display[y][x].getBackground();
-        if (bgcolor == Color.GREEN) {
-            display[y][x].setBackground(Color.BLACK);
-            return true; //erased
+    public boolean isFullScreen() {
+        return getGraphicsConfiguration().getDevice().getFullScreenWindow() == this;
+    }
+
+    private void control(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_F11:
+                setFullScreen(!isFullScreen());
+                break;
+            case KeyEvent.VK_F10:
+                Chip8Filter filters[] = Chip8Filter.values();
+                setFilter(filters[(getFilter().ordinal() + 1) % filters.length]);
+                break;
+            case KeyEvent.VK_F9:
+                setPhosphor(!isPhosphor());
+                break;
+            default:
+                break;
         }
-        else {
-            display[y][x].setBackground(Color.GREEN);
-            return false;
+    }
+
+    private void renderLoop() {
+        long period = TimeUnit.SECONDS.toNanos(1) / refreshRate();
+        long deadline = System.nanoTime();
+        Chip8Frame drawn = null;
+        Chip8Scaler drawnScaler = null;
+        int drawnWidth = 0, drawnHeight = 0;
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        while (rendering) {
+            Chip8Frame frame = framebuffer.getPublishedFrame();
+            Chip8Scaler scaler = this.scaler;
+            int width = canvas.getWidth(), height = canvas.getHeight();
+            // Nothing to do when neither the frame nor the window changed
+            // and no pixel is still fading
+            if (frame != drawn || scaler != drawnScaler || scaler.isFading()
+                || width != drawnWidth || height != drawnHeight || strategy.contentsLost()) {
+                upload(scaler, frame);
+                draw(strategy, width, height);
+                drawn = frame;
+                drawnScaler = scaler;
+                drawnWidth = width;
+                drawnHeight = height;
+            }
+            deadline += period;
+            long now = System.nanoTime();
+            if (deadline > now)
+                LockSupport.parkNanos(this, deadline - now);
+            else
+                deadline = now;
         }
     }
 
-    public void clear() {
-        for (int i = 0; i < 32; i++)
-            for (int j = 0; j < 64; j++)
-                display[i][j].setBackground(Color.BLACK);
+    private static int refreshRate() {
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? Chip8Scheduler.FRAMES_PER_SECOND : rate;
+    }
+
+    // Only happens when the program switches resolution or the filter
+    // changes. A new image makes the scaler draw every row.
+    private void allocateImage(int width, int height) {
+        imageWidth = width;
+        imageHeight = height;
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, Chip8Scaler.DEFAULT_PALETTE[0]);
+    }
+
+    // The scaler only rewrites the rows that differ from what the image
+    // already shows
+    private void upload(Chip8Scaler scaler, Chip8Frame frame) {
+        int width = scaler.getOutputWidth(frame), height = scaler.getOutputHeight(frame);
+        if (width != imageWidth || height != imageHeight)
+            allocateImage(width, height);
+        scaler.render(frame, pixels);
+    }
+
+    // Scales the image by the largest whole factor that fits, the rest of
+    // the way is left to the filter
+    private void draw(BufferStrategy strategy, int width, int height) {
+        int scale = Math.max(1, Math.min(width / imageWidth, height / imageHeight));
+        int w = imageWidth * scale, h = imageHeight * scale;
+        int x = (width - w) / 2, y = (height - h) / 2;
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                g.setColor(Color.DARK_GRAY);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(image, x, y, w, h, null);
+                g.dispose();
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
     }
 }
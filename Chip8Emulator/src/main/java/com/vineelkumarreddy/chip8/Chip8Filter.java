@@ -0,0 +1,47 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * How Chip8Scaler enlarges a frame before any plain pixel replication.
+ *
+ *   NEAREST   every pixel stays a square
+ *   SCALE2X   Scale2x/EPX, smooths diagonal edges at twice the size
+ *   SCALE4X   Scale2x applied twice
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public enum Chip8Filter {
+    NEAREST(0),
+    SCALE2X(1),
+    SCALE4X(2);
+
+    private final int passes;
+
+    Chip8Filter(int passes) {
+        this.passes = passes;
+    }
+
+    // Number of Scale2x passes
+    public int getPasses() {
+        return passes;
+    }
+
+    public int getFactor() {
+        return 1 << passes;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An immutable finished frame as published by Chip8Framebuffer. Rows are
+ * packed one bit per pixel into width / 64 longs, the leftmost pixel
+ * being the most significant bit, one block of rows per bitplane.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Frame {
+    private final int width, height, planes, words;
+    private final long bits[];
+
+    // bits is owned by the frame from now on
+    Chip8Frame(int width, int height, int planes, long bits[]) {
+        this.width = width;
+        this.height = height;
+        this.planes = planes;
+        this.words = width >> 6;
+        this.bits = bits;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getPlanes() {
+        return planes;
+    }
+
+    // width / 64
+    public int getWordsPerRow() {
+        return words;
+    }
+
+    public long getWord(int plane, int y, int word) {
+        return bits[(plane * height + y) * words + word];
+    }
+
+    // Bit p of the result is set when the pixel is lit in plane p
+    public int getPixel(int x, int y) {
+        int color = 0;
+        for (int plane = 0; plane < planes; plane++) {
+            if ((getWord(plane, y, x >> 6) << (x & 63)) < 0)
+                color |= 1 << plane;
+        }
+        return color;
+    }
+
+    // The bits as big endian bytes, the form Chip8DeltaCodec works on
+    byte[] toBytes() {
+        ByteBuffer bytes = ByteBuffer.allocate(bits.length * 8);
+        bytes.asLongBuffer().put(bits);
+        return bytes.array();
+    }
+
+    // Same into out, which must hold at least getByteSize() bytes
+    void toBytes(byte out[]) {
+        ByteBuffer.wrap(out).asLongBuffer().put(bits);
+    }
+
+    int getByteSize() {
+        return bits.length * 8;
+    }
+
+    static Chip8Frame fromBytes(int width, int height, int planes, byte bytes[]) {
+        long bits[] = new long[planes * height * (width >> 6)];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(bits);
+        return new Chip8Frame(width, height, planes, bits);
+    }
+
+    boolean sameGeometry(Chip8Frame other) {
+        return other != null && other.width == width && other.height == height && other.planes == planes;
+    }
+
+    // True if the two frames show the same row y
+    boolean sameRow(Chip8Frame other, int y) {
+        if (!sameGeometry(other))
+            return false;
+        for (int plane = 0; plane < planes; plane++) {
+            int from = (plane * height + y) * words;
+            if (Arrays.mismatch(bits, from, from + words, other.bits, from, from + words) >= 0)
+                return false;
+        }
+        return true;
+    }
+
+    // Compares against the live contents of a framebuffer without copying
+    boolean sameAs(int width, int height, int planes, long bits[]) {
+        return this.width == width && this.height == height && this.planes == planes
+               && Arrays.equals(this.bits, 0, this.bits.length, bits, 0, this.bits.length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Chip8Frame))
+            return false;
+        Chip8Frame other = (Chip8Frame) obj;
+        return sameAs(other.width, other.height, other.planes, other.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits) * 31 + width;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Headless framebuffer for every mode. Each row is kept as width / 64
+ * longs per bitplane, so a sprite row is drawn with a couple of shifts,
+ * ANDs and XORs, and scrolling moves whole rows or words at a time.
+ * Nothing here allocates except publish() after a change, and the first
+ * change after a fork, which shares the bits until then.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Framebuffer implements Display {
+    //Chip8 display size
+    public static final int WIDTH = 64, HEIGHT = 32;
+    // SUPER-CHIP and XO-CHIP high resolution
+    public static final int HIRES_WIDTH = 128, HIRES_HEIGHT = 64;
+
+    private final Chip8Mode mode;
+    private final int planes;
+    // Only the first planes * height * words longs are in use, plane after plane
+    private long bits[];
+    // Set while a fork may still be using bits, see own
+    private boolean shared;
+    private int width = WIDTH, height = HEIGHT, words = 1;
+    private int selectedPlanes = 1;
+    // Last finished frame, never modified once published
+    private volatile Chip8Frame published;
+    // Sees every publish while frames are being recorded, not forked
+    private volatile Chip8Recorder recorder;
+
+    public Chip8Framebuffer() {
+        this(Chip8Mode.CHIP8);
+    }
+
+    public Chip8Framebuffer(Chip8Mode mode) {
+        this.mode = mode;
+        this.planes = mode.getPlanes();
+        this.bits = new long[planes * (mode.isExtended() ? HIRES_HEIGHT * (HIRES_WIDTH >> 6) : HEIGHT)];
+        this.published = new Chip8Frame(width, height, planes, new long[planes * height * words]);
+    }
+
+    private Chip8Framebuffer(Chip8Framebuffer parent) {
+        this.mode = parent.mode;
+        this.planes = parent.planes;
+        this.bits = parent.bits;
+        this.width = parent.width;
+        this.height = parent.height;
+        this.words = parent.words;
+        this.selectedPlanes = parent.selectedPlanes;
+        this.published = parent.published;
+        this.shared = true;
+        parent.shared = true;
+    }
+
+    // A framebuffer showing the same picture that shares the bits with
+    // this one until either changes them
+    Chip8Framebuffer fork() {
+        return new Chip8Framebuffer(this);
+    }
+
+    // Called before anything is written to bits
+    private void own() {
+        if (shared) {
+            bits = bits.clone();
+            shared = false;
+        }
+    }
+
+    @Override
+    public int getDisplayWidth() {
+        return width;
+    }
+
+    @Override
+    public int getDisplayHeight() {
+        return height;
+    }
+
+    /*
+    The sprite row is moved to the top of a 128 bit value so that its
+    first pixel lands on column 0, then shifted right by x. Whatever
+    falls off the right edge comes back in on the left when the mode
+    wraps sprites, which is exactly what Chip8 asks for; SUPER-CHIP
+    clips it instead. Height 0 draws a 16x16 sprite outside Chip8.
+     */
+    @Override
+    public boolean drawSprite(Chip8Memory ram, int address, int x, int y, int height) {
+        int spriteWidth = 8;
+        if (height == 0 && mode.isExtended()) {
+            spriteWidth = 16;
+            height = 16;
+        }
+        boolean wrap = mode != Chip8Mode.SUPER_CHIP;
+        own();
+        x &= width - 1;
+        y &= this.height - 1;
+        long collision = 0;
+        for (int plane = 0; plane < planes; plane++) {
+            if ((selectedPlanes & (1 << plane)) == 0)
+                continue;
+            for (int i = 0; i < height; i++) {
+                long sprite = spriteWidth == 16 ? ram.getWord(address) : ram.getByte(address);
+                address += spriteWidth >> 3;
+                int row = y + i;
+                if (row >= this.height) {
+                    if (!wrap)
+                        continue;
+                    row -= this.height;
+                }
+                collision |= xorRow(index(plane, row), sprite << (64 - spriteWidth), x, wrap);
+            }
+        }
+        return collision != 0;
+    }
+
+    // XORs sprite, already at the top of the long, into the row at column x
+    private long xorRow(int index, long sprite, int x, boolean wrap) {
+        if (words == 1) {
+            long shifted = wrap ? Long.rotateRight(sprite, x) : sprite >>> x;
+            long collision = bits[index] & shifted;
+            bits[index] ^= shifted;
+            return collision;
+        }
+        long left, right;
+        if (x < 64) {
+            left = sprite >>> x;
+            right = x == 0 ? 0 : sprite << (64 - x);
+        }
+        else {
+            left = wrap && x > 64 ? sprite << (128 - x) : 0;
+            right = sprite >>> (x - 64);
+        }
+        long collision = (bits[index] & left) | (bits[index + 1] & right);
+        bits[index] ^= left;
+        bits[index + 1] ^= right;
+        return collision;
+    }
+
+    @Override
+    public void clear() {
+        own();
+        for (int plane = 0; plane < planes; plane++) {
+            if ((selectedPlanes & (1 << plane)) != 0)
+                Arrays.fill(bits, index(plane, 0), index(plane, height), 0);
+        }
+    }
+
+    @Override
+    public void scrollDown(int rows) {
+        rows = Math.min(rows, height);
+        own();
+        for (int plane = 0; plane < planes; plane++) {
+            if ((selectedPlanes & (1 << plane)) == 0)
+                continue;
+            int start = index(plane, 0);
+            System.arraycopy(bits, start, bits, start + rows * words, (height - rows) * words);
+            Arrays.fill(bits, start, start + rows * words, 0);
+        }
+    }
+
+    @Override
+    public void scrollUp(int rows) {
+        rows = Math.min(rows, height);
+        own();
+        for (int plane = 0; plane < planes; plane++) {
+            if ((selectedPlanes & (1 << plane)) == 0)
+                continue;
+            int start = index(plane, 0);
+            System.arraycopy(bits, start + rows * words, bits, start, (height - rows) * words);
+            Arrays.fill(bits, index(plane, height - rows), index(plane, height), 0);
+        }
+    }
+
+    @Override
+    public void scrollRight(int pixels) {
+        if (pixels <= 0)
+            return;
+        own();
+        for (int plane = 0; plane < planes; plane++) {
+            if ((selectedPlanes & (1 << plane)) == 0)
+                continue;
+            for (int i = index(plane, 0), end = index(plane, height); i < end; i += words) {
+                if (words == 2)
+                    bits[i + 1] = (bits[i + 1] >>> pixels) | (bits[i] << (64 - pixels));
+                bits[i] >>>= pixels;
+            }
+        }
+    }
+
+    @Override
+    public void scrollLeft(int pixels) {
+        if (pixels <= 0)
+            return;
+        own();
+        for (int plane = 0; plane < planes; plane++) {
+            if ((selectedPlanes & (1 << plane)) == 0)
+                continue;
+            for (int i = index(plane, 0), end = index(plane, height); i < end; i += words) {
+                bits[i] <<= pixels;
+                if (words == 2) {
+                    bits[i] |= bits[i + 1] >>> (64 - pixels);
+                    bits[i + 1] <<= pixels;
+                }
+            }
+        }
+    }
+
+    // Switching resolution clears every plane
+    @Override
+    public void setHighResolution(boolean highResolution) {
+        if (!mode.isExtended())
+            return;
+        width = highResolution ? HIRES_WIDTH : WIDTH;
+        height = highResolution ? HIRES_HEIGHT : HEIGHT;
+        words = width >> 6;
+        own();
+        Arrays.fill(bits, 0);
+    }
+
+    @Override
+    public boolean isHighResolution() {
+        return width == HIRES_WIDTH;
+    }
+
+    @Override
+    public void selectPlanes(int mask) {
+        selectedPlanes = mask & ((1 << planes) - 1);
+    }
+
+    public int getSelectedPlanes() {
+        return selectedPlanes;
+    }
+
+    public Chip8Mode getMode() {
+        return mode;
+    }
+
+    public int getPlanes() {
+        return planes;
+    }
+
+    private int index(int plane, int y) {
+        return (plane * height + y) * words;
+    }
+
+    // A new frame is only published when something actually changed,
+    // so idle machines do not allocate. Frames are not pooled: readers
+    // keep them for as long as they like (the stream server diffs against
+    // the last one each client got, forks share them, the window paints
+    // from them), so there is no point at which one could be reused. At
+    // most 60 short lived frames a second is cheap for the young GC.
+    @Override
+    public void publish() {
+        if (!published.sameAs(width, height, planes, bits))
+            published = new Chip8Frame(width, height, planes, Arrays.copyOf(bits, planes * height * words));
+        Chip8Recorder recorder = this.recorder;
+        if (recorder != null)
+            recorder.capture(published);
+    }
+
+    // The last published frame. Safe to read from any thread.
+    public Chip8Frame getPublishedFrame() {
+        return published;
+    }
+
+    void setRecorder(Chip8Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    Chip8Recorder getRecorder() {
+        return recorder;
+    }
+
+    public long getWord(int plane, int y, int word) {
+        return bits[index(plane, y) + word];
+    }
+
+    public boolean isPixelSet(int x, int y) {
+        return (bits[index(0, y) + (x >> 6)] << (x & 63)) < 0;
+    }
+
+    // Snapshot support: resolution, selected planes and every word
+    int stateSize() {
+        return 2 + bits.length * 8;
+    }
+
+    void saveState(ByteBuffer out) {
+        out.put((byte) (isHighResolution() ? 1 : 0));
+        out.put((byte) selectedPlanes);
+        for (long word : bits)
+            out.putLong(word);
+    }
+
+    void restoreState(ByteBuffer in) {
+        boolean highResolution = in.get() != 0;
+        width = highResolution ? HIRES_WIDTH : WIDTH;
+        height = highResolution ? HIRES_HEIGHT : HEIGHT;
+        words = width >> 6;
+        selectedPlanes = in.get();
+        own();
+        for (int i = 0; i < bits.length; i++)
+            bits[i] = in.getLong();
+    }
+}
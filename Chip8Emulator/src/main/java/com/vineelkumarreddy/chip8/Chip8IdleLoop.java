@@ -0,0 +1,160 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * Recognizes programs that are only polling. A candidate is a short loop
+ * closed by a backward 1nnn jump whose body touches nothing but the
+ * registers: reads of DT, key skips, compares and register loads. Each
+ * time the jump is taken the next iteration is tried out on a copy of
+ * the registers; if it comes back around with every register unchanged
+ * the machine is at a fixed point, and nothing will happen until DT
+ * ticks or a key changes.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8IdleLoop {
+    // Longest loop we look at, counting the closing jump
+    static final int MAX_LOOP_LENGTH = 8;
+
+    // Results of check
+    static final int BUSY = 0; // the next iteration does real work
+    static final int WAITING = 1; // idle until DT ticks or a key changes
+    static final int STUCK = 2; // idle for good, e.g. a jump to itself
+
+    private final Chip8Memory ram;
+    private final Chip8Keyboard keyboard;
+    private final int v[] = new int[16];
+
+    Chip8IdleLoop(Chip8Memory ram, Chip8Keyboard keyboard) {
+        this.ram = ram;
+        this.keyboard = keyboard;
+    }
+
+    // True when pc holds a jump closing a loop we know how to check
+    static boolean isCandidate(Chip8Memory ram, int pc) {
+        int instruction = ram.getWord(pc);
+        if ((instruction & 0xf000) != 0x1000)
+            return false;
+        int target = instruction & 0xfff;
+        int distance = pc - target;
+        if (distance < 0 || distance > 2 * (MAX_LOOP_LENGTH - 1) || (distance & 1) != 0)
+            return false;
+        for (int address = target; address < pc; address += 2) {
+            if (!isPure(ram.getWord(address)))
+                return false;
+        }
+        return true;
+    }
+
+    // Instructions that read machine state but only ever write V registers
+    static boolean isPure(int instruction) {
+        int n = instruction & 0xf;
+        int kk = instruction & 0xff;
+        switch ((instruction >> 12) & 0xf) {
+            case 3:
+            case 4:
+            case 6:
+            case 7:
+                return true;
+            case 5:
+            case 9:
+                return n == 0;
+            case 8:
+                return n <= 3;
+            case 0xE:
+                return kk == 0x9E || kk == 0xA1;
+            case 0xF:
+                return kk == 0x07;
+            default:
+                return false;
+        }
+    }
+
+    // Called with cpu.PC already back at the loop start. Runs one more
+    // iteration on a copy of the registers and tells whether it changed
+    // anything.
+    int check(Chip8CPU cpu, int jumpPc) {
+        System.arraycopy(cpu.V, 0, v, 0, 16);
+        boolean readsTimer = false, readsKeys = false;
+        int pc = cpu.PC;
+        while (pc != jumpPc) {
+            if (pc > jumpPc)
+                return BUSY; // skipped over the jump, the loop ends
+            int instruction = ram.getWord(pc);
+            int x = (instruction >> 8) & 0xf;
+            int y = (instruction >> 4) & 0xf;
+            int kk = instruction & 0xff;
+            boolean skip = false;
+            pc += 2;
+            switch ((instruction >> 12) & 0xf) {
+                case 3:
+                    skip = v[x] == kk;
+                    break;
+                case 4:
+                    skip = v[x] != kk;
+                    break;
+                case 5:
+                    skip = v[x] == v[y];
+                    break;
+                case 9:
+                    skip = v[x] != v[y];
+                    break;
+                case 6:
+                    v[x] = kk;
+                    break;
+                case 7:
+                    v[x] = (v[x] + kk) & 0xff;
+                    break;
+                case 8:
+                    switch (instruction & 0xf) {
+                        case 0:
+                            v[x] = v[y];
+                            break;
+                        case 1:
+                            v[x] |= v[y];
+                            break;
+                        case 2:
+                            v[x] &= v[y];
+                            break;
+                        default:
+                            v[x] ^= v[y];
+                            break;
+                    }
+                    break;
+                case 0xE:
+                    // Leave anything odd to the interpreter
+                    if (v[x] > 0xf)
+                        return BUSY;
+                    readsKeys = true;
+                    skip = keyboard.isChip8keyPressed(v[x]) == (kk == 0x9E);
+                    break;
+                default: // Fx07
+                    readsTimer = true;
+                    v[x] = cpu.DT;
+                    break;
+            }
+            if (skip)
+                pc += 2;
+        }
+        for (int r = 0; r < 16; r++) {
+            if (v[r] != cpu.V[r])
+                return BUSY;
+        }
+        return readsTimer || readsKeys ? WAITING : STUCK;
+    }
+}
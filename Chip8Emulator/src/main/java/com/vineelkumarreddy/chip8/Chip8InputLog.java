@@ -0,0 +1,141 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Every key transition of a run, keyed by the CPU cycle count at which
+ * the CPU saw it, together with the mode, the ROM, the RNG seed and the
+ * instruction rate the run used. That is all it takes to replay a run
+ * from power on, see Chip8Replay.
+ *
+ * File layout, big endian: magic, version, mode ordinal, the 64 hex
+ * digits of the ROM's SHA-256 in ASCII, seed, instructions per second,
+ * event count, then one long per event.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8InputLog {
+    static final int MAGIC = 0x4338494e; // C8IN
+    static final int VERSION = 2;
+    static final int HASH_SIZE = 64;
+    static final int HEADER_SIZE = 4 + 4 + 4 + HASH_SIZE + 8 + 4 + 4;
+
+    private static final int PRESSED = 0x10;
+
+    private final Chip8Mode mode;
+    private final String romHash;
+    private final long seed;
+    private final int instructionsPerSecond;
+    // cycle << 8 | pressed flag | key
+    private long events[] = new long[64];
+    private int size;
+
+    // romHash is Chip8Rom.getHash of the program the run loaded
+    public Chip8InputLog(Chip8Mode mode, String romHash, long seed, int instructionsPerSecond) {
+        if (romHash.length() != HASH_SIZE)
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + romHash);
+        this.mode = mode;
+        this.romHash = romHash;
+        this.seed = seed;
+        this.instructionsPerSecond = instructionsPerSecond;
+    }
+
+    synchronized void record(long cycle, int key, boolean pressed) {
+        if (size == events.length)
+            events = Arrays.copyOf(events, size * 2);
+        events[size++] = cycle << 8 | (pressed ? PRESSED : 0) | key;
+    }
+
+    public Chip8Mode getMode() {
+        return mode;
+    }
+
+    public String getRomHash() {
+        return romHash;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getInstructionsPerSecond() {
+        return instructionsPerSecond;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getCycle(int index) {
+        return events[index] >>> 8;
+    }
+
+    public synchronized int getKey(int index) {
+        return (int) events[index] & 0xf;
+    }
+
+    public synchronized boolean isPressed(int index) {
+        return (events[index] & PRESSED) != 0;
+    }
+
+    public synchronized void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + size * 8);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(mode.ordinal());
+        buffer.put(romHash.getBytes(StandardCharsets.US_ASCII)).putLong(seed).putInt(instructionsPerSecond).putInt(size);
+        buffer.asLongBuffer().put(events, 0, size);
+        buffer.position(0);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    public static Chip8InputLog read(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new IOException(path + " is not a Chip8 input log");
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported input log version " + version);
+        Chip8Mode modes[] = Chip8Mode.values();
+        int mode = buffer.getInt();
+        if (mode < 0 || mode >= modes.length)
+            throw new IOException("Unknown mode " + mode + " in " + path);
+        byte hash[] = new byte[HASH_SIZE];
+        buffer.get(hash);
+        Chip8InputLog log = new Chip8InputLog(modes[mode], new String(hash, StandardCharsets.US_ASCII),
+                                              buffer.getLong(), buffer.getInt());
+        int count = buffer.getInt();
+        if (count < 0 || buffer.remaining() < count * 8L)
+            throw new IOException(path + " is truncated");
+        log.events = new long[Math.max(count, 1)];
+        buffer.asLongBuffer().get(log.events, 0, count);
+        log.size = count;
+        return log;
+    }
+}
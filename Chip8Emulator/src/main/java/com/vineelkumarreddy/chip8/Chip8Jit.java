@@ -0,0 +1,150 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.Arrays;
+
+/**
+ * Optional JIT tier. Straight runs of register only instructions are
+ * compiled into hidden classes the first time PC reaches them; anything
+ * else (draws, memory access, keys, random) is left to the interpreter.
+ * Blocks are checked against their source whenever memory under them
+ * is written, see Chip8Memory page generations.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+class Chip8Jit {
+    // Marks addresses the JIT gave up on, so we do not retry every time
+    private static final Chip8Block INTERPRET = new Chip8Block() {
+        @Override
+        int execute(Chip8CPU cpu) {
+            throw new IllegalStateException();
+        }
+    };
+
+    private final Chip8Memory ram;
+    private final Chip8BlockCompiler compiler;
+    private final Chip8Block blocks[];
+    private final int mask;
+    // Memory generations the cache was last checked against
+    private int generation;
+    private final int pageGenerations[];
+
+    Chip8Jit(Chip8Memory ram, Chip8Mode mode) {
+        this.ram = ram;
+        this.compiler = new Chip8BlockCompiler(ram, mode);
+        this.blocks = new Chip8Block[ram.size()];
+        this.mask = ram.size() - 1;
+        this.pageGenerations = new int[ram.size() >> Chip8Memory.PAGE_SHIFT];
+        this.generation = ram.getGeneration();
+        for (int page = 0; page < pageGenerations.length; page++)
+            pageGenerations[page] = ram.getPageGeneration(page);
+    }
+
+    // Runs exactly the given number of instructions, or fewer when the
+    // program goes idle. A block that does not fit in what is left of the
+    // budget is interpreted step by step instead, so callers can rely on
+    // exact cycle counts.
+    int run(Chip8CPU cpu, int cycles) {
+        int executed = 0;
+        while (executed < cycles && !cpu.idle) {
+            if (ram.getGeneration() != generation)
+                checkWrites();
+            int pc = cpu.PC & mask;
+            Chip8Block block = blocks[pc];
+            if (block == null)
+                block = compile(pc);
+            if (block == INTERPRET || block.instructions > cycles - executed) {
+                cpu.step();
+                executed++;
+            }
+            else {
+                cpu.PC = block.execute(cpu);
+                executed += block.instructions;
+            }
+        }
+        return executed;
+    }
+
+    // Compiles the blocks at the given addresses ahead of time
+    void precompile(int addresses[]) {
+        if (ram.getGeneration() != generation)
+            checkWrites();
+        for (int pc : addresses) {
+            if (blocks[pc & mask] == null)
+                compile(pc & mask);
+        }
+    }
+
+    private Chip8Block compile(int pc) {
+        Chip8Block block = compiler.compile(pc);
+        if (block == null) {
+            blocks[pc] = INTERPRET;
+            return INTERPRET;
+        }
+        blocks[pc] = block;
+        return block;
+    }
+
+    // Something was written since the last check. Data often shares a
+    // page with code, so the blocks overlapping a written page are
+    // compared against their source and only dropped if it changed.
+    private void checkWrites() {
+        generation = ram.getGeneration();
+        for (int page = 0; page < pageGenerations.length; page++) {
+            int pageGeneration = ram.getPageGeneration(page);
+            if (pageGeneration != pageGenerations[page]) {
+                pageGenerations[page] = pageGeneration;
+                checkPage(page);
+            }
+        }
+    }
+
+    private void checkPage(int page) {
+        int pageStart = page << Chip8Memory.PAGE_SHIFT;
+        int pageEnd = pageStart + Chip8Memory.PAGE_SIZE;
+        // A block may also cover the word after its last instruction, and
+        // one ending in 1nnn was compiled because the loop before the jump
+        // was no idle loop candidate, so it depends on that loop as well
+        int from = Math.max(0, pageStart - 2 * (Chip8BlockCompiler.MAX_BLOCK_LENGTH + 1));
+        int to = Math.min(blocks.length, pageEnd + 2 * (Chip8IdleLoop.MAX_LOOP_LENGTH - 1));
+        for (int pc = from; pc < to; pc++) {
+            Chip8Block block = blocks[pc];
+            if (block == null || block == INTERPRET || block.end <= pageStart)
+                continue;
+            int jump = block.start + 2 * (block.instructions - 1);
+            boolean endsInJump = (block.code[block.instructions - 1] & 0xf000) == 0x1000;
+            int checkedFrom = endsInJump ? jump - 2 * (Chip8IdleLoop.MAX_LOOP_LENGTH - 1) : block.start;
+            if (checkedFrom >= pageEnd)
+                continue;
+            if (!matchesSource(block) || endsInJump && Chip8IdleLoop.isCandidate(ram, jump))
+                blocks[pc] = null;
+        }
+    }
+
+    private boolean matchesSource(Chip8Block block) {
+        for (int i = 0; i < block.code.length; i++) {
+            if (ram.getWord(block.start + 2 * i) != block.code[i])
+                return false;
+        }
+        return true;
+    }
+
+    void invalidate() {
+        Arrays.fill(blocks, null);
+    }
+}
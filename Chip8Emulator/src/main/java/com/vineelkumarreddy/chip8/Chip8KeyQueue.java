@@ -0,0 +1,92 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of key events from any number of threads to
+ * the one thread running the CPU. Each slot carries a sequence number
+ * that says whether it is free for the producer at a given position or
+ * filled for the consumer, so producers only contend on the tail and
+ * nothing is allocated per event.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8KeyQueue {
+    static final int EMPTY = -1;
+
+    private final int mask;
+    private final int events[];
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only touched by the consumer
+    private long head;
+
+    // capacity must be a power of two
+    Chip8KeyQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        mask = capacity - 1;
+        events = new int[capacity];
+        // Filled in plain and copied rather than a volatile store per slot
+        long initial[] = new long[capacity];
+        for (int i = 0; i < capacity; i++)
+            initial[i] = i;
+        sequences = new AtomicLongArray(initial);
+    }
+
+    // Any thread. False when the queue is full.
+    boolean offer(int event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    sequences.lazySet(index, position + 1); // publishes the event
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if (available < 0) {
+                return false; // the slot still holds an event from a lap ago
+            }
+            else {
+                position = tail.get();
+            }
+        }
+    }
+
+    // Consumer only, EMPTY when there is nothing to take
+    int poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1)
+            return EMPTY;
+        int event = events[index];
+        sequences.lazySet(index, head + mask + 1); // frees the slot for the next lap
+        head++;
+        return event;
+    }
+
+    // Consumer only
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * Fixed seed and scripted key presses for headless runs that have to
+ * come out the same every time: the conformance goldens, the profiler
+ * and the benchmarks all drive ROMs with these.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8KeyScript {
+    static final long SEED = 0x43385346L;
+
+    private Chip8KeyScript() {
+    }
+
+    // Every 20 frames a different key goes down for 6 frames
+    static void press(Chip8Keyboard keyboard, int frame) {
+        int key = (frame / 20 * 7) & 0xf;
+        if (frame % 20 == 0)
+            keyboard.press(key);
+        else if (frame % 20 == 6)
+            keyboard.release(key);
+    }
+}
@@ -16,44 +16,180 @@ package com.vineelkumarreddy.chip8;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * The 16 key hex keypad. Keys come in from AWT or from press and
+ * release, which any thread may call, but they are queued and only
+ * become visible to the program when the CPU applies them at the start
+ * of its next slice. That way a run depends only on the cycle a key was
+ * applied at, which Chip8InputLog records.
+ *
+ * The thread running the CPU is the only one that writes the key state;
+ * other threads only ever add to a bounded lock-free queue. Should the
+ * CPU stop draining it, say while its session is paused, further events
+ * are dropped and counted rather than queued without limit.
+ *
  * @author Vineel Kumar Reddy Kovvuri
  * @version 1.0
  * @date 19-03-2016
  */
 public class Chip8Keyboard implements KeyListener {
+    private static final int PRESSED = 0x10;
+    // Far more than anyone types between two slices
+    private static final int QUEUE_CAPACITY = 256;
+
     // This keeps the state of the chip 8 keyboard's 15 keys
-    private boolean keysPressed[] = new boolean[0x10];
+    private final boolean keysPressed[] = new boolean[0x10];
+    // Number of presses so far in the upper bits, the last key pressed
+    // in the low byte
+    private long lastPress;
+    // Key events not applied yet, key | PRESSED. Created by the first
+    // post, so a fork nobody types into never allocates one.
+    private volatile Chip8KeyQueue pending;
+    private final AtomicLong droppedEvents = new AtomicLong();
+    // Keys held down as far as AWT knows, to drop auto repeat
+    private final boolean awtPressed[] = new boolean[0x10];
+    private final CopyOnWriteArrayList<Chip8KeyListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Chip8InputLog recorder;
+
+    // A keyboard for a fork, holding the same keys down. Events still
+    // queued here, listeners and the recorder stay with this one.
+    Chip8Keyboard fork() {
+        Chip8Keyboard keyboard = new Chip8Keyboard();
+        System.arraycopy(keysPressed, 0, keyboard.keysPressed, 0, keysPressed.length);
+        keyboard.lastPress = lastPress;
+        return keyboard;
+    }
 
     public boolean isChip8keyPressed(int key) {
         return keysPressed[key];
     }
 
+    public void press(int key) {
+        post(key, true);
+    }
+
+    public void release(int key) {
+        post(key, false);
+    }
+
+    private void post(int key, boolean pressed) {
+        if (key < 0 || key > 0xf)
+            throw new IllegalArgumentException("Not a Chip8 key: " + key);
+        if (!queue().offer(pressed ? key | PRESSED : key)) {
+            droppedEvents.incrementAndGet();
+            return;
+        }
+        for (Chip8KeyListener listener : listeners)
+            listener.keyChanged(key, pressed);
+    }
+
+    private Chip8KeyQueue queue() {
+        Chip8KeyQueue pending = this.pending;
+        if (pending == null) {
+            synchronized (this) {
+                pending = this.pending;
+                if (pending == null)
+                    this.pending = pending = new Chip8KeyQueue(QUEUE_CAPACITY);
+            }
+        }
+        return pending;
+    }
+
+    // Events lost because the queue was full
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    boolean hasPendingEvents() {
+        Chip8KeyQueue pending = this.pending;
+        return pending != null && !pending.isEmpty();
+    }
+
+    // Called by the CPU between slices, cycle is its cycle count
+    void applyPendingEvents(long cycle) {
+        Chip8KeyQueue pending = this.pending;
+        if (pending == null)
+            return;
+        int event;
+        while ((event = pending.poll()) != Chip8KeyQueue.EMPTY) {
+            int key = event & 0xf;
+            boolean pressed = (event & PRESSED) != 0;
+            keysPressed[key] = pressed;
+            if (pressed)
+                lastPress = ((lastPress >>> 8) + 1) << 8 | key;
+            Chip8InputLog recorder = this.recorder;
+            if (recorder != null)
+                recorder.record(cycle, key, pressed);
+        }
+    }
+
+    long getLastPress() {
+        return lastPress;
+    }
+
+    // Bit n is set while key n is down, for snapshots
+    int getPressedKeys() {
+        int keys = 0;
+        for (int key = 0; key < keysPressed.length; key++)
+            if (keysPressed[key])
+                keys |= 1 << key;
+        return keys;
+    }
+
+    // Events still queued are applied on top of the restored keys
+    void restoreKeys(int keys, long lastPress) {
+        for (int key = 0; key < keysPressed.length; key++)
+            keysPressed[key] = (keys & 1 << key) != 0;
+        this.lastPress = lastPress;
+    }
+
+    // Records every key event from now on, null to stop
+    public void setRecorder(Chip8InputLog recorder) {
+        this.recorder = recorder;
+    }
+
+    public void addKeyListener(Chip8KeyListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeKeyListener(Chip8KeyListener listener) {
+        listeners.remove(listener);
+    }
+
     @Override
     public void keyTyped(KeyEvent e) {
-        keyReleased(e);
+        // Presses and releases say it all
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        char key = e.getKeyChar();
-        if (Character.isDigit(key))
-            keysPressed['0' - key] = true;
-        else if (key >= 'a' && key <= 'f')
-            keysPressed[9 + ('a' - key)] = true;
-        else if (key >= 'A' && key <= 'F')
-            keysPressed[9 + ('A' - key)] = true;
+        int key = toChip8Key(e.getKeyChar());
+        if (key >= 0 && !awtPressed[key]) {
+            awtPressed[key] = true;
+            press(key);
+        }
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        char key = e.getKeyChar();
-        if (Character.isDigit(key))
-            keysPressed['0' - key] = false;
-        else if (key >= 'a' && key <= 'f')
-            keysPressed[9 + ('a' - key)] = false;
-        else if (key >= 'A' && key <= 'F')
-            keysPressed[9 + ('A' - key)] = false;
+        int key = toChip8Key(e.getKeyChar());
+        if (key >= 0) {
+            awtPressed[key] = false;
+            release(key);
+        }
+    }
+
+    // Maps 0-9 and a-f to the hex keypad, -1 for anything else
+    private static int toChip8Key(char key) {
+        if (key >= '0' && key <= '9')
+            return key - '0';
+        if (key >= 'a' && key <= 'f')
+            return 10 + (key - 'a');
+        if (key >= 'A' && key <= 'F')
+            return 10 + (key - 'A');
+        return -1;
     }
 }
@@ -0,0 +1,57 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Plays samples on the default SourceDataLine. The line buffer only
+ * holds a few chunks, so a change of ST is heard within milliseconds.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8LineSink implements Chip8AudioSink {
+    private static final int BUFFERED_CHUNKS = 4;
+
+    private final SourceDataLine line;
+
+    Chip8LineSink() throws LineUnavailableException {
+        AudioFormat format = new AudioFormat(Chip8Audio.SAMPLE_RATE, 8, 1, true, false);
+        line = AudioSystem.getSourceDataLine(format);
+        line.open(format, BUFFERED_CHUNKS * Chip8Audio.CHUNK_SAMPLES);
+        line.start();
+    }
+
+    @Override
+    public void write(byte samples[], int length) {
+        line.write(samples, 0, length);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        line.stop();
+        line.close();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A complete headless Chip8 machine: memory, keyboard, framebuffer and
+ * CPU wired together, with its timers driven by the instruction count
+ * through a Chip8Scheduler.
+ *
+ * fork() branches a machine cheaply: the child shares memory pages, the
+ * decoded program and the framebuffer with its parent, and whichever of
+ * the two writes first copies just what it writes.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Machine {
+    private final Chip8Memory ram;
+    private final Chip8Keyboard keyboard;
+    private final Chip8Framebuffer display;
+    private final Chip8CPU cpu;
+    private final Chip8Scheduler scheduler;
+    private Chip8Debugger debugger;
+    // SHA-256 of the loaded program, null until one is loaded
+    private String romHash;
+
+    public Chip8Machine() {
+        this(Chip8Mode.CHIP8);
+    }
+
+    public Chip8Machine(Chip8Mode mode) {
+        ram = new Chip8Memory(mode.getMemorySize());
+        keyboard = new Chip8Keyboard();
+        display = new Chip8Framebuffer(mode);
+        cpu = new Chip8CPU(ram, display, keyboard, mode);
+        scheduler = new Chip8Scheduler(cpu);
+    }
+
+    private Chip8Machine(Chip8Machine parent) {
+        ram = parent.ram.fork();
+        keyboard = parent.keyboard.fork();
+        display = parent.display.fork();
+        cpu = parent.cpu.fork(ram, display, keyboard);
+        scheduler = parent.scheduler.fork(cpu);
+        romHash = parent.romHash;
+    }
+
+    // A new machine in exactly the state of this one, which then runs on
+    // its own. Costs about as much as copying the registers. Must be
+    // called between frames by the thread running this machine; the child
+    // may then be handed to any other thread. Key events still queued,
+    // recording, the JIT and metrics are not carried over.
+    public Chip8Machine fork() {
+        return new Chip8Machine(this);
+    }
+
+    public void loadProgram(Path path) throws IOException {
+        loadProgram(Chip8Rom.read(path));
+    }
+
+    public void loadProgram(Chip8Rom rom) {
+        rom.loadInto(ram);
+        romHash = rom.getHash();
+    }
+
+    // Loads the program and skips decoding and analysing it again. The
+    // machine has to be in the mode the analysis found.
+    public void loadProgram(Chip8Rom rom, Chip8RomAnalysis analysis) {
+        if (!rom.getHash().equals(analysis.getHash()))
+            throw new IllegalArgumentException("Analysis is for a different ROM than " + rom);
+        rom.loadInto(ram);
+        romHash = rom.getHash();
+        cpu.preload(analysis);
+    }
+
+    // Runs one 60 Hz frame worth of instructions, then ticks DT and ST
+    public void runFrame() {
+        scheduler.runFrame();
+    }
+
+    // Starts recording key events for Chip8Replay. Meant to be called
+    // right after loading the program, a replay starts from power on.
+    public Chip8InputLog startRecording() {
+        if (romHash == null)
+            throw new IllegalStateException("Load a program before recording");
+        Chip8InputLog log = new Chip8InputLog(cpu.getMode(), romHash, cpu.getSeed(),
+                                              scheduler.getInstructionsPerSecond());
+        keyboard.setRecorder(log);
+        return log;
+    }
+
+    public void stopRecording() {
+        keyboard.setRecorder(null);
+    }
+
+    // Starts writing every frame the display publishes to path, see
+    // Chip8Recorder. Any earlier frame recording is finished first.
+    public Chip8Recorder startFrameRecording(Path path) throws IOException {
+        stopFrameRecording();
+        Chip8Recorder recorder = new Chip8Recorder(path);
+        display.setRecorder(recorder);
+        return recorder;
+    }
+
+    public void stopFrameRecording() throws IOException {
+        Chip8Recorder recorder = display.getRecorder();
+        display.setRecorder(null);
+        if (recorder != null)
+            recorder.close();
+    }
+
+    public Chip8Mode getMode() {
+        return cpu.getMode();
+    }
+
+    // SHA-256 of the loaded program, see Chip8Rom.getHash
+    public String getRomHash() {
+        return romHash;
+    }
+
+    public Chip8Memory getMemory() {
+        return ram;
+    }
+
+    public Chip8Keyboard getKeyboard() {
+        return keyboard;
+    }
+
+    public Chip8Framebuffer getDisplay() {
+        return display;
+    }
+
+    public Chip8CPU getCPU() {
+        return cpu;
+    }
+
+    public Chip8Metrics getMetrics() {
+        return scheduler.getMetrics();
+    }
+
+    public Chip8Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    // Created on first use. Until it is given breakpoints or told to pause
+    // it costs the machine nothing.
+    public synchronized Chip8Debugger getDebugger() {
+        if (debugger == null) {
+            debugger = new Chip8Debugger(this);
+            scheduler.setDebugger(debugger);
+        }
+        return debugger;
+    }
+}
@@ -15,9 +15,10 @@
 package com.vineelkumarreddy.chip8;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * @author Vineel Kumar Reddy Kovvuri
@@ -25,11 +26,32 @@ import java.nio.file.Path;
  * @date 19-03-2016
  */
 public class Chip8Memory {
-    private int ram[] = new int[0x1000];
-    private final int DEFAULT_LOAD_ADDRESS = 0x200;
+    public static final int SIZE = 0x1000;
+    public static final int DEFAULT_LOAD_ADDRESS = 0x200;
+    public static final int MAX_PROGRAM_SIZE = SIZE - DEFAULT_LOAD_ADDRESS; // 3584 bytes
+    // Where the SUPER-CHIP 8x10 font starts, right after the small one
+    public static final int LARGE_FONT_ADDRESS = 0x50;
+
+    // Writes are tracked per 64 byte page. Every write bumps the page's
+    // generation and the global one, so caches of decoded or compiled
+    // code can tell cheaply whether the code under them changed.
+    public static final int PAGE_SHIFT = 6;
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    // Every page starts out as this one and gets its own array on the
+    // first write
+    private static final byte ZERO_PAGE[] = new byte[PAGE_SIZE];
+
+    // The same pages double as the unit of copy on write: a page that is
+    // not owned may be shared with forks and is copied before a write
+    private final byte pages[][];
+    private final boolean owned[];
+    private final int mask;
+    private final int pageGenerations[];
+    private int generation;
 
     // This may not be used by all programs
-    int spritHexChars[] = {
+    static final int spritHexChars[] = {
         0xF0, 0x90, 0x90, 0x90, 0xF0, // 0
         0x20, 0x60, 0x20, 0x20, 0x70, // 1
         0xF0, 0x10, 0xF0, 0x80, 0xF0, // 2
@@ -48,43 +70,171 @@ public class Chip8Memory {
         0xF0, 0x80, 0xF0, 0x80, 0x80 // F
     };
 
+    // SUPER-CHIP digits, 10 rows each, A-F are only used by XO-CHIP
+    static final int largeHexChars[] = {
+        0xFF, 0xFF, 0xC3, 0xC3, 0xC3, 0xC3, 0xC3, 0xC3, 0xFF, 0xFF, // 0
+        0x18, 0x78, 0x78, 0x18, 0x18, 0x18, 0x18, 0x18, 0xFF, 0xFF, // 1
+        0xFF, 0xFF, 0x03, 0x03, 0xFF, 0xFF, 0xC0, 0xC0, 0xFF, 0xFF, // 2
+        0xFF, 0xFF, 0x03, 0x03, 0xFF, 0xFF, 0x03, 0x03, 0xFF, 0xFF, // 3
+        0xC3, 0xC3, 0xC3, 0xC3, 0xFF, 0xFF, 0x03, 0x03, 0x03, 0x03, // 4
+        0xFF, 0xFF, 0xC0, 0xC0, 0xFF, 0xFF, 0x03, 0x03, 0xFF, 0xFF, // 5
+        0xFF, 0xFF, 0xC0, 0xC0, 0xFF, 0xFF, 0xC3, 0xC3, 0xFF, 0xFF, // 6
+        0xFF, 0xFF, 0x03, 0x03, 0x06, 0x0C, 0x18, 0x18, 0x18, 0x18, // 7
+        0xFF, 0xFF, 0xC3, 0xC3, 0xFF, 0xFF, 0xC3, 0xC3, 0xFF, 0xFF, // 8
+        0xFF, 0xFF, 0xC3, 0xC3, 0xFF, 0xFF, 0x03, 0x03, 0xFF, 0xFF, // 9
+        0x7E, 0xFF, 0xC3, 0xC3, 0xC3, 0xFF, 0xFF, 0xC3, 0xC3, 0xC3, // A
+        0xFC, 0xFC, 0xC3, 0xC3, 0xFC, 0xFC, 0xC3, 0xC3, 0xFC, 0xFC, // B
+        0x3C, 0xFF, 0xC3, 0xC0, 0xC0, 0xC0, 0xC0, 0xC3, 0xFF, 0x3C, // C
+        0xFC, 0xFE, 0xC3, 0xC3, 0xC3, 0xC3, 0xC3, 0xC3, 0xFE, 0xFC, // D
+        0xFF, 0xFF, 0xC0, 0xC0, 0xFF, 0xFF, 0xC0, 0xC0, 0xFF, 0xFF, // E
+        0xFF, 0xFF, 0xC0, 0xC0, 0xFF, 0xFF, 0xC0, 0xC0, 0xC0, 0xC0 // F
+    };
+
     public Chip8Memory() {
-        for (int i = 0; i < ram.length; i++)
-            ram[i] = 0;
+        this(SIZE);
+    }
 
+    // size is 4K for Chip8 and SUPER-CHIP, 64K for XO-CHIP
+    public Chip8Memory(int size) {
+        if (size < SIZE || Integer.bitCount(size) != 1)
+            throw new IllegalArgumentException("Memory size must be a power of two of at least " + SIZE);
+        pages = new byte[size >> PAGE_SHIFT][];
+        Arrays.fill(pages, ZERO_PAGE);
+        owned = new boolean[pages.length];
+        mask = size - 1;
+        pageGenerations = new int[pages.length];
         // Load sprits to the lower portion of the chip8 RAM
         for (int i = 0; i < spritHexChars.length; i++)
-            ram[i] = spritHexChars[i];
+            store(i, spritHexChars[i]);
+        for (int i = 0; i < largeHexChars.length; i++)
+            store(LARGE_FONT_ADDRESS + i, largeHexChars[i]);
+    }
+
+    private Chip8Memory(Chip8Memory parent) {
+        pages = parent.pages.clone();
+        owned = new boolean[pages.length];
+        mask = parent.mask;
+        pageGenerations = parent.pageGenerations.clone();
+        generation = parent.generation;
+        Arrays.fill(parent.owned, false);
+    }
+
+    // A copy that shares every page with this memory until one of the
+    // two writes to it, so it costs a pointer per page. Generations carry
+    // over, caches built on this memory stay valid for the copy.
+    Chip8Memory fork() {
+        return new Chip8Memory(this);
     }
 
+    // Addresses wrap around at the end of the address space
     public int getWord(int index) {
-        return (ram[index] << 8) | (ram[index + 1] & 0xff);
+        return (getByte(index) << 8) | getByte(index + 1);
     }
 
     public int getByte(int index) {
-        return ram[index] & 0xff;
+        index &= mask;
+        return pages[index >> PAGE_SHIFT][index & PAGE_MASK] & 0xff;
     }
 
     public void setByte(int index, int value) {
-        ram[index] = value & 0xff;
+        index &= mask;
+        store(index, value);
+        pageGenerations[index >> PAGE_SHIFT]++;
+        generation++;
+    }
+
+    // Writes without touching the generations
+    private void store(int index, int value) {
+        writablePage(index >> PAGE_SHIFT)[index & PAGE_MASK] = (byte) value;
     }
 
-    public void loadProgram(Path path) {
-        try (InputStream reader = Files.newInputStream(path)) {
-            int _byte = 0;
-            for (int i = DEFAULT_LOAD_ADDRESS; (_byte = reader.read()) > -1; i++)
-                ram[i] = _byte & 0xff;
+    private byte[] writablePage(int page) {
+        if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
         }
-        catch (IOException ex) {
-            ex.printStackTrace();
+        return pages[page];
+    }
+
+    // Changes whenever anything is written
+    public int getGeneration() {
+        return generation;
+    }
+
+    // Changes whenever anything in the page is written
+    public int getPageGeneration(int page) {
+        return pageGenerations[page];
+    }
+
+    public int size() {
+        return mask + 1;
+    }
+
+    // Copies the whole RAM out, used by snapshots
+    void copyTo(byte dst[], int offset) {
+        for (int page = 0; page < pages.length; page++)
+            System.arraycopy(pages[page], 0, dst, offset + (page << PAGE_SHIFT), PAGE_SIZE);
+    }
+
+    // Replaces the whole RAM. Only pages whose contents actually change
+    // get a new generation.
+    void copyFrom(byte src[], int offset) {
+        for (int page = 0; page < pageGenerations.length; page++) {
+            int from = page << PAGE_SHIFT;
+            if (Arrays.mismatch(pages[page], 0, PAGE_SIZE,
+                                src, offset + from, offset + from + PAGE_SIZE) < 0)
+                continue;
+            System.arraycopy(src, offset + from, writablePage(page), 0, PAGE_SIZE);
+            pageGenerations[page]++;
+            generation++;
+        }
+    }
+
+    public void loadProgram(Path path) throws IOException {
+        loadProgram(Files.readAllBytes(path));
+    }
+
+    public void loadProgram(byte program[]) {
+        loadProgram(ByteBuffer.wrap(program));
+    }
+
+    // Copies the remaining bytes of the buffer to the load address a page
+    // at a time. Everything above the program is cleared, so nothing of
+    // an earlier, longer program is left; pages that are already blank
+    // are not touched.
+    public void loadProgram(ByteBuffer program) {
+        int length = program.remaining();
+        int maxLength = size() - DEFAULT_LOAD_ADDRESS;
+        if (length > maxLength)
+            throw new IllegalArgumentException("Program is " + length + " bytes, at most "
+                                               + maxLength + " fit in memory");
+        int end = DEFAULT_LOAD_ADDRESS + length;
+        for (int page = DEFAULT_LOAD_ADDRESS >> PAGE_SHIFT; page < pages.length; page++) {
+            int from = Math.max(page << PAGE_SHIFT, DEFAULT_LOAD_ADDRESS);
+            int to = Math.min((page + 1) << PAGE_SHIFT, end);
+            if (to > from) {
+                byte target[] = writablePage(page);
+                int offset = from & PAGE_MASK;
+                program.get(target, offset, to - from);
+                Arrays.fill(target, offset + to - from, PAGE_SIZE, (byte) 0);
+            }
+            else if (pages[page] != ZERO_PAGE) {
+                pages[page] = ZERO_PAGE;
+                owned[page] = false;
+            }
+            else {
+                continue;
+            }
+            pageGenerations[page]++;
         }
+        generation++;
     }
 
     public void dumpRAM() {
-        for (int i = 0x200; i <= 0xfff; i += 16) {
+        for (int i = 0x200; i < size(); i += 16) {
             System.out.printf("%08x: ", i);
             for (int j = 0; j < 16; j += 2) {
-                System.out.printf("%02x%02x ", ram[i + j], ram[i + j + 1]);
+                System.out.printf("%04x ", getWord(i + j));
             }
             System.out.println("");
         }
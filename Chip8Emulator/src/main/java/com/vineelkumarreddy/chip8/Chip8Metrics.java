@@ -0,0 +1,258 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Counters of one machine, written by the thread running its frames
+ * and readable from any thread without locking. The scheduler hands the
+ * CPU's counters over once a frame, so none of this costs anything per
+ * instruction, except opcode family counts which switch the CPU to its
+ * monitored loop while they are enabled.
+ *
+ * An exported instance is registered as an MXBean named
+ * com.vineelkumarreddy.chip8:type=Machine,name=... and reported in a
+ * periodic Chip8MetricsEvent to JFR.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Metrics implements Chip8MetricsMXBean, Chip8Monitor {
+    // Lag beyond which the frames are assumed never to catch up
+    public static final int MAX_DRIFT_FRAMES = 10;
+    private static final long MAX_DRIFT_NANOS = MAX_DRIFT_FRAMES * Chip8Scheduler.FRAME_NANOS;
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int INSTRUCTIONS = 0, INSTRUCTIONS_PER_SECOND = 1, FRAMES = 2, DRAWS = 3;
+    private static final int COLLISIONS = 4, IDLE = 5, HALTED = 6, KEY_WAIT = 7, DRIFT = 8, SLIPS = 9;
+    private static final int COUNTERS = 10;
+
+    private static final Set<Chip8Metrics> exported = ConcurrentHashMap.newKeySet();
+
+    static {
+        FlightRecorder.addPeriodicEvent(Chip8MetricsEvent.class, () -> {
+            for (Chip8Metrics metrics : exported)
+                metrics.emitEvent();
+        });
+    }
+
+    // Only ever written by the frame thread, so lazySet is enough
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTERS);
+    private final AtomicLongArray families = new AtomicLongArray(16);
+    private volatile boolean opcodeCounting;
+    private volatile String name;
+    private ObjectName objectName;
+
+    // Frame thread only: where the 60 Hz clock started and the last
+    // instructions per second sample
+    private long clockStart;
+    private long clockFrames;
+    private long sampleStart;
+    private long sampleInstructions;
+    private boolean clockRunning;
+    private boolean sampling;
+
+    // Called by the scheduler after every frame. Drift is only measured
+    // while frames are meant to run at 60 Hz.
+    void frameFinished(Chip8CPU cpu, long frames, boolean paced) {
+        long now = System.nanoTime();
+        long instructions = cpu.getCycles() - cpu.getIdleCycles();
+        if (!paced)
+            clockRunning = false;
+        else if (!clockRunning) {
+            clockRunning = true;
+            clockStart = now;
+            clockFrames = frames;
+        }
+        if (!sampling) {
+            sampling = true;
+            sampleStart = now;
+            sampleInstructions = instructions;
+        }
+        counters.lazySet(INSTRUCTIONS, instructions);
+        counters.lazySet(FRAMES, frames);
+        counters.lazySet(DRAWS, cpu.getDraws());
+        counters.lazySet(COLLISIONS, cpu.getCollisions());
+        counters.lazySet(IDLE, cpu.getIdleCycles());
+        counters.lazySet(HALTED, cpu.getHaltedCycles());
+        counters.lazySet(KEY_WAIT, cpu.getKeyWaitCycles());
+
+        long drift = clockRunning ? (now - clockStart) - (frames - clockFrames) * Chip8Scheduler.FRAME_NANOS : 0;
+        if (drift > MAX_DRIFT_NANOS) {
+            counters.lazySet(SLIPS, counters.get(SLIPS) + 1);
+            Chip8TimerSlipEvent event = new Chip8TimerSlipEvent();
+            if (event.isEnabled()) {
+                event.machine = name;
+                event.lag = drift;
+                event.commit();
+            }
+            resetClock();
+            drift = 0;
+        }
+        counters.lazySet(DRIFT, drift);
+
+        if (now - sampleStart >= SECOND_NANOS) {
+            counters.lazySet(INSTRUCTIONS_PER_SECOND,
+                             (instructions - sampleInstructions) * SECOND_NANOS / (now - sampleStart));
+            sampleStart = now;
+            sampleInstructions = instructions;
+        }
+    }
+
+    // Restarts the 60 Hz clock, for when frames stop on purpose: the
+    // machine was parked or paused, or runs in turbo mode
+    void resetClock() {
+        clockRunning = false;
+    }
+
+    // Installs or removes this as the CPU's monitor, on the frame thread
+    void syncMonitor(Chip8CPU cpu) {
+        boolean counting = opcodeCounting;
+        if (counting && cpu.getMonitor() == null)
+            cpu.setMonitor(this);
+        else if (!counting && cpu.getMonitor() == this)
+            cpu.setMonitor(null);
+    }
+
+    @Override
+    public void afterInstruction(Chip8CPU cpu, int pc, int instruction) {
+        int family = instruction >>> 12;
+        families.lazySet(family, families.get(family) + 1);
+    }
+
+    @Override
+    public long getInstructions() {
+        return counters.get(INSTRUCTIONS);
+    }
+
+    @Override
+    public long getInstructionsPerSecond() {
+        return counters.get(INSTRUCTIONS_PER_SECOND);
+    }
+
+    @Override
+    public long getFrames() {
+        return counters.get(FRAMES);
+    }
+
+    @Override
+    public long getDraws() {
+        return counters.get(DRAWS);
+    }
+
+    @Override
+    public long getCollisions() {
+        return counters.get(COLLISIONS);
+    }
+
+    @Override
+    public long getIdleCycles() {
+        return counters.get(IDLE);
+    }
+
+    @Override
+    public long getHaltedCycles() {
+        return counters.get(HALTED);
+    }
+
+    @Override
+    public long getKeyWaitCycles() {
+        return counters.get(KEY_WAIT);
+    }
+
+    @Override
+    public double getTimerDriftMillis() {
+        return counters.get(DRIFT) / 1e6;
+    }
+
+    @Override
+    public long getTimerSlips() {
+        return counters.get(SLIPS);
+    }
+
+    @Override
+    public long[] getOpcodeFamilyCounts() {
+        long counts[] = new long[16];
+        for (int i = 0; i < 16; i++)
+            counts[i] = families.get(i);
+        return counts;
+    }
+
+    @Override
+    public boolean isOpcodeCounting() {
+        return opcodeCounting;
+    }
+
+    // Takes effect at the start of the next frame. Gives way to any other
+    // monitor already installed, such as a tracer.
+    @Override
+    public void setOpcodeCounting(boolean enabled) {
+        opcodeCounting = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Registers the MXBean and starts JFR reporting under this name
+    public synchronized void export(String name) throws JMException {
+        if (objectName != null)
+            unexport();
+        ObjectName objectName = new ObjectName("com.vineelkumarreddy.chip8:type=Machine,name="
+                                               + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+        this.name = name;
+        exported.add(this);
+    }
+
+    public synchronized void unexport() {
+        exported.remove(this);
+        if (objectName == null)
+            return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        }
+        catch (JMException ex) {
+            // Already gone
+        }
+        objectName = null;
+    }
+
+    private void emitEvent() {
+        Chip8MetricsEvent event = new Chip8MetricsEvent();
+        event.machine = name;
+        event.instructions = getInstructions();
+        event.instructionsPerSecond = getInstructionsPerSecond();
+        event.frames = getFrames();
+        event.draws = getDraws();
+        event.collisions = getCollisions();
+        event.idleCycles = getIdleCycles();
+        event.keyWaitCycles = getKeyWaitCycles();
+        event.timerDrift = counters.get(DRIFT);
+        event.commit();
+    }
+}
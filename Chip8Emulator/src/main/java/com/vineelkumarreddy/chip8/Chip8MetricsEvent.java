@@ -0,0 +1,65 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted once a period for every exported Chip8Metrics.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+@Name("com.vineelkumarreddy.chip8.Metrics")
+@Label("Chip8 Metrics")
+@Category("Chip8")
+@Period("1 s")
+@StackTrace(false)
+final class Chip8MetricsEvent extends Event {
+    @Label("Machine")
+    String machine;
+
+    @Label("Instructions")
+    long instructions;
+
+    @Label("Instructions Per Second")
+    long instructionsPerSecond;
+
+    @Label("Frames")
+    long frames;
+
+    @Label("Draws")
+    long draws;
+
+    @Label("Collisions")
+    long collisions;
+
+    @Label("Idle Cycles")
+    long idleCycles;
+
+    @Label("Key Wait Cycles")
+    long keyWaitCycles;
+
+    @Label("Timer Drift")
+    @Timespan(Timespan.NANOSECONDS)
+    long timerDrift;
+}
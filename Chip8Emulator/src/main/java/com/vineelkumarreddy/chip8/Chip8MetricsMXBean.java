@@ -0,0 +1,56 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * Runtime metrics of one machine, see Chip8Metrics.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public interface Chip8MetricsMXBean {
+
+    // Instructions actually executed, idle ones not included
+    long getInstructions();
+
+    // Over the last second of frames
+    long getInstructionsPerSecond();
+
+    long getFrames();
+
+    long getDraws();
+
+    long getCollisions();
+
+    long getIdleCycles();
+
+    long getHaltedCycles();
+
+    long getKeyWaitCycles();
+
+    // How far the frames lag behind a 60 Hz wall clock, negative when ahead
+    double getTimerDriftMillis();
+
+    // Times the lag grew past Chip8Metrics.MAX_DRIFT_FRAMES and was written off
+    long getTimerSlips();
+
+    // Instructions executed per high nibble, only counted while enabled
+    long[] getOpcodeFamilyCounts();
+
+    boolean isOpcodeCounting();
+
+    void setOpcodeCounting(boolean enabled);
+}
@@ -0,0 +1,57 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * The instruction set a machine runs. Each mode is a superset of the
+ * one before it:
+ *
+ *   CHIP8       64x32, 4 KB
+ *   SUPER_CHIP  adds 128x64, scrolling, 16x16 sprites, the large font
+ *               and the RPL flags; sprites are clipped at the edges and
+ *               Bxnn jumps to xnn + Vx
+ *   XO_CHIP     adds 64 KB of memory, two bitplanes, 00Dn, 5xy2, 5xy3
+ *               and F000 nnnn; Fx55 and Fx65 advance I
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public enum Chip8Mode {
+    CHIP8(0x1000, 1),
+    SUPER_CHIP(0x1000, 1),
+    XO_CHIP(0x10000, 2);
+
+    private final int memorySize;
+    private final int planes;
+
+    Chip8Mode(int memorySize, int planes) {
+        this.memorySize = memorySize;
+        this.planes = planes;
+    }
+
+    public int getMemorySize() {
+        return memorySize;
+    }
+
+    public int getPlanes() {
+        return planes;
+    }
+
+    // 128x64 and the SUPER-CHIP instructions
+    public boolean isExtended() {
+        return this != CHIP8;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * Observes the instructions a CPU executes. Installing one with
+ * Chip8CPU.setMonitor makes the CPU run its instrumented loop.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public interface Chip8Monitor {
+
+    // Called before the instruction at pc runs. Returning false ends the
+    // current runCycles without running it, see Chip8Debugger.
+    default boolean beforeInstruction(Chip8CPU cpu, int pc) {
+        return true;
+    }
+
+    // Called right after the instruction fetched from pc was executed
+    void afterInstruction(Chip8CPU cpu, int pc, int instruction);
+
+    // Called on the CPU thread when an instruction fails, before the
+    // exception propagates
+    default void onException(Chip8CPU cpu, RuntimeException ex) {
+    }
+}
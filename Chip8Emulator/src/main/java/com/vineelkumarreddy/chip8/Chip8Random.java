@@ -0,0 +1,93 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The generator behind Cxkk. It is the 48 bit LCG of java.util.Random and
+ * returns exactly the same numbers for the same seed, so recorded input
+ * logs and the conformance goldens stay valid, but unlike Random its
+ * state can be copied when a machine is forked.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8Random implements RandomGenerator {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    Chip8Random(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    private Chip8Random(Chip8Random other) {
+        state = other.state;
+    }
+
+    Chip8Random copy() {
+        return new Chip8Random(this);
+    }
+
+    // The 48 bit state, for snapshots
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state & MASK;
+    }
+
+    // A generator that continues exactly like random does. The CPU only
+    // ever holds one of these or a jumpable generator, see setRandom.
+    static RandomGenerator copyOf(RandomGenerator random) {
+        if (random instanceof Chip8Random)
+            return ((Chip8Random) random).copy();
+        return ((RandomGenerator.JumpableGenerator) random).copy();
+    }
+
+    private int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return next(32);
+    }
+
+    // Same algorithm as Random.nextInt(int)
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("bound must be positive");
+        int r = next(31);
+        int m = bound - 1;
+        if ((bound & m) == 0)
+            return (int) ((bound * (long) r) >> 31);
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(31))
+            ;
+        return r;
+    }
+
+    @Override
+    public long nextLong() {
+        return ((long) next(32) << 32) + next(32);
+    }
+}
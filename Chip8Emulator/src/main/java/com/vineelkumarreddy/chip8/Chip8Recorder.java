@@ -0,0 +1,245 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every frame a Chip8Framebuffer publishes to an append-only
+ * file. The CPU thread only drops a reference to the immutable frame into
+ * a bounded ring; one writer thread shared by all recorders drains the
+ * rings a few times a second, XOR/RLE encodes each frame against the one
+ * before it and writes the records through a reused direct buffer. When
+ * a ring is full the frame is dropped and counted, capture never waits.
+ *
+ * Install with machine.startFrameRecording(path). Chip8RecordingExport
+ * turns a recording into an animated GIF or PNG.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Recorder implements AutoCloseable {
+    // About a second of frames that change every time
+    public static final int DEFAULT_CAPACITY = 64;
+
+    // File layout: magic, version, frames per second, then records, big
+    // endian. A keyframe has its frame number, geometry and a delta
+    // against a blank frame; a delta has the number of frames since the
+    // last record and its length as varints. The end record holds the
+    // frames seen and dropped; a file without one was cut short.
+    static final int MAGIC = 0x43385243; // C8RC
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 4;
+    static final byte KEYFRAME = 1, DELTA = 2, END = 3;
+    static final int KEYFRAME_HEADER_SIZE = 1 + 8 + 2 + 2 + 1 + 4;
+    static final int END_SIZE = 1 + 8 + 8;
+
+    private static final long DRAIN_MILLIS = 250;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chip8-frame-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Ring of captured frames, single producer and single consumer
+    private final Chip8Frame frames[];
+    private final long numbers[];
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(), tail = new AtomicLong();
+
+    // CPU thread only
+    private long published;
+    private Chip8Frame last;
+    private volatile long dropped;
+
+    // Writer thread only
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private Chip8Frame previous;
+    private long previousNumber;
+    private byte previousBytes[] = new byte[0], currentBytes[] = new byte[0], encoded[] = new byte[0];
+    private volatile long recorded, bytesWritten;
+    private volatile IOException failure;
+
+    private final ScheduledFuture<?> drainer;
+    private boolean closed;
+
+    public Chip8Recorder(Path path) throws IOException {
+        this(path, DEFAULT_CAPACITY);
+    }
+
+    // capacity is the number of frames that can wait for the writer and
+    // must be a power of two
+    public Chip8Recorder(Path path, int capacity) throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity must be a power of two");
+        frames = new Chip8Frame[capacity];
+        numbers = new long[capacity];
+        mask = capacity - 1;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(Chip8Scheduler.FRAMES_PER_SECOND);
+        drainer = WRITER.scheduleWithFixedDelay(this::drain, DRAIN_MILLIS, DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // CPU thread, once per published frame. Unchanged frames only count.
+    void capture(Chip8Frame frame) {
+        long number = published++;
+        if (frame == last)
+            return;
+        long position = tail.get();
+        if (position - head.get() > mask) {
+            // Forget the frame so that it is offered again next time
+            // even if it does not change
+            last = null;
+            dropped++;
+            return;
+        }
+        int index = (int) position & mask;
+        frames[index] = frame;
+        numbers[index] = number;
+        tail.lazySet(position + 1); // publishes the slot
+        last = frame;
+    }
+
+    // Frames published since recording started
+    public long getFrames() {
+        return published;
+    }
+
+    // Changed frames the writer had no room for
+    public long getDroppedFrames() {
+        return dropped;
+    }
+
+    // Changed frames written so far
+    public long getRecordedFrames() {
+        return recorded;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void drain() {
+        if (failure != null)
+            return;
+        try {
+            long position = head.get(), end = tail.get();
+            for (; position < end; position++) {
+                int index = (int) position & mask;
+                write(frames[index], numbers[index]);
+                frames[index] = null;
+                head.lazySet(position + 1); // frees the slot
+            }
+            flush();
+        }
+        catch (IOException ex) {
+            failure = ex;
+        }
+    }
+
+    private void write(Chip8Frame frame, long number) throws IOException {
+        int size = frame.getByteSize();
+        if (currentBytes.length < size) {
+            currentBytes = new byte[size];
+            encoded = new byte[Chip8DeltaCodec.maxEncodedLength(size)];
+        }
+        frame.toBytes(currentBytes);
+        boolean keyframe = !frame.sameGeometry(previous);
+        int length = Chip8DeltaCodec.encode(keyframe ? null : previousBytes, currentBytes, size, encoded);
+        if (buffer.remaining() < KEYFRAME_HEADER_SIZE + length)
+            flush();
+        if (keyframe) {
+            buffer.put(KEYFRAME).putLong(number)
+                  .putShort((short) frame.getWidth()).putShort((short) frame.getHeight())
+                  .put((byte) frame.getPlanes()).putInt(length);
+        }
+        else {
+            buffer.put(DELTA);
+            putVarint(number - previousNumber);
+            putVarint(length);
+        }
+        buffer.put(encoded, 0, length);
+
+        byte swap[] = previousBytes;
+        previousBytes = currentBytes;
+        currentBytes = swap.length >= size ? swap : new byte[size];
+        previous = frame;
+        previousNumber = number;
+        recorded++;
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        bytesWritten += buffer.remaining();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    // Writes what is still waiting and the end record. The framebuffer
+    // should stop offering frames first, anything captured after the
+    // final drain is lost.
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        drainer.cancel(false);
+        try {
+            WRITER.submit(() -> {
+                try (channel) {
+                    drain();
+                    if (failure == null) {
+                        buffer.put(END).putLong(published).putLong(dropped);
+                        flush();
+                    }
+                }
+                return null;
+            }).get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the recording", ex);
+        }
+        catch (ExecutionException ex) {
+            throw new IOException(ex.getCause());
+        }
+        if (failure != null)
+            throw failure;
+    }
+}
@@ -0,0 +1,539 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Turns a recording written by Chip8Recorder into an animated GIF or an
+ * animated PNG. Frames go through a Chip8Scaler, and each frame of the
+ * animation only covers the rectangle that changed since the one before.
+ * Frames of a low resolution part are scaled up to the size of the high
+ * resolution ones.
+ *
+ * Usage: Chip8RecordingExport [--scale n] [--filter nearest|scale2x|scale4x] recording out.gif|out.png
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8RecordingExport {
+    public static final int DEFAULT_SCALE = 4;
+
+    // Without persistence the scaler turns color c into 0xff000000 | c,
+    // so rendering with this palette gives the palette index of each pixel
+    private static final int INDEX_PALETTE[] = {0, 1, 2, 3};
+    private static final int COLORS = INDEX_PALETTE.length;
+    // GIF delays are in hundredths of a second and most viewers slow down
+    // anything shorter than two, faster frames are merged
+    private static final int GIF_MIN_DELAY = 2;
+
+    public static void main(String... args) throws IOException {
+        int scale = DEFAULT_SCALE;
+        Chip8Filter filter = Chip8Filter.NEAREST;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                if (args[i].equals("--scale") && i + 1 < args.length)
+                    scale = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--filter") && i + 1 < args.length)
+                    filter = Chip8Filter.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                else
+                    i = args.length;
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            i = args.length;
+        }
+        if (args.length - i != 2 || scale <= 0) {
+            System.err.println("Usage: Chip8RecordingExport [--scale n] [--filter nearest|scale2x|scale4x] recording out.gif|out.png");
+            System.exit(1);
+        }
+        Path recording = Paths.get(args[i]), out = Paths.get(args[i + 1]);
+        if (out.toString().toLowerCase(Locale.ROOT).endsWith(".gif"))
+            toGif(recording, out, filter, scale);
+        else
+            toPng(recording, out, filter, scale);
+    }
+
+    public static void toGif(Path recording, Path out, Chip8Filter filter, int scale) throws IOException {
+        try (GifSink sink = new GifSink(out)) {
+            export(recording, filter, scale, sink);
+        }
+    }
+
+    public static void toPng(Path recording, Path out, Chip8Filter filter, int scale) throws IOException {
+        try (PngSink sink = new PngSink(out)) {
+            export(recording, filter, scale, sink);
+        }
+    }
+
+    private static void export(Path recording, Chip8Filter filter, int scale, FrameSink sink) throws IOException {
+        // A first pass over the records only, for the size of the canvas
+        Reader reader = new Reader(recording);
+        int maxWidth = 0, maxHeight = 0;
+        while (reader.next(false)) {
+            maxWidth = Math.max(maxWidth, reader.width);
+            maxHeight = Math.max(maxHeight, reader.height);
+        }
+        if (maxWidth == 0)
+            throw new IOException(recording + " has no frames");
+        int width = maxWidth * filter.getFactor() * scale, height = maxHeight * filter.getFactor() * scale;
+
+        // One scaler and output per resolution, a scaler only redraws the
+        // rows that changed since it last drew into the same array
+        Chip8Scaler scalers[] = new Chip8Scaler[maxWidth + 1];
+        int outputs[][] = new int[maxWidth + 1][];
+        byte current[] = new byte[width * height], shown[] = new byte[width * height];
+
+        reader = new Reader(recording);
+        int minFrames = sink.start(width, height, reader.framesPerSecond);
+        boolean first = true;
+        long start = 0;
+        while (reader.next(true)) {
+            Chip8Frame frame = reader.getFrame();
+            if (first) {
+                start = reader.number;
+                first = false;
+            }
+            // A frame shown too briefly gives way to the next one
+            else if (reader.number - start >= minFrames) {
+                emit(sink, current, shown, width, height, reader.number - start);
+                start = reader.number;
+            }
+
+            int factor = maxWidth / frame.getWidth();
+            if (scalers[factor] == null) {
+                scalers[factor] = new Chip8Scaler(filter, scale * factor, 0, INDEX_PALETTE);
+                if (scalers[factor].getOutputWidth(frame) != width || scalers[factor].getOutputHeight(frame) != height)
+                    throw new IOException("Frames of " + recording + " differ in aspect ratio");
+                outputs[factor] = new int[width * height];
+            }
+            int pixels[] = outputs[factor];
+            scalers[factor].render(frame, pixels);
+            for (int i = 0; i < pixels.length; i++)
+                current[i] = (byte) pixels[i];
+        }
+        if (!first)
+            emit(sink, current, shown, width, height, Math.max(minFrames, reader.getFrameCount() - start));
+        sink.finish();
+    }
+
+    // Hands the part of current that differs from shown to the sink, the
+    // whole canvas the first time
+    private static void emit(FrameSink sink, byte current[], byte shown[], int width, int height,
+                             long frames) throws IOException {
+        int left = width, right = -1, top = height, bottom = -1;
+        if (sink.getFrameCount() == 0) {
+            left = top = 0;
+            right = width - 1;
+            bottom = height - 1;
+        }
+        else {
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    if (current[row + x] != shown[row + x]) {
+                        left = Math.min(left, x);
+                        right = Math.max(right, x);
+                        top = Math.min(top, y);
+                        bottom = y;
+                    }
+                }
+            }
+            // Nothing visible changed, a single pixel still carries the delay
+            if (right < 0)
+                left = right = top = bottom = 0;
+        }
+        for (int y = top; y <= bottom; y++)
+            System.arraycopy(current, y * width + left, shown, y * width + left, right - left + 1);
+        sink.frame(current, width, left, top, right - left + 1, bottom - top + 1, frames);
+    }
+
+    private static abstract class FrameSink implements AutoCloseable {
+        private int frameCount;
+
+        // Returns the fewest recorded frames one frame of the animation may last
+        abstract int start(int width, int height, int framesPerSecond) throws IOException;
+
+        // The rectangle at (x, y) of canvas, shown for the given number of
+        // recorded frames
+        final void frame(byte canvas[], int stride, int x, int y, int width, int height,
+                         long frames) throws IOException {
+            write(canvas, stride, x, y, width, height, frames);
+            frameCount++;
+        }
+
+        abstract void write(byte canvas[], int stride, int x, int y, int width, int height,
+                            long frames) throws IOException;
+
+        abstract void finish() throws IOException;
+
+        int getFrameCount() {
+            return frameCount;
+        }
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+
+    private static final class GifSink extends FrameSink {
+        private static final int MIN_CODE_SIZE = 2; // COLORS == 4
+        private static final int CLEAR = 1 << MIN_CODE_SIZE, END = CLEAR + 1;
+        private static final int MAX_CODES = 1 << 12;
+
+        private final OutputStream out;
+        private int framesPerSecond;
+        private long elapsed;
+        // LZW dictionary, the code for prefix code p followed by color c
+        // is at p * COLORS + c, 0 when there is none
+        private final short codes[] = new short[MAX_CODES * COLORS];
+        private final byte block[] = new byte[255];
+        private int blockLength, bits, bitCount, codeSize;
+        private byte pixels[] = new byte[0];
+
+        GifSink(Path path) throws IOException {
+            out = new BufferedOutputStream(Files.newOutputStream(path));
+        }
+
+        @Override
+        int start(int width, int height, int framesPerSecond) throws IOException {
+            this.framesPerSecond = framesPerSecond;
+            out.write("GIF89a".getBytes(StandardCharsets.US_ASCII));
+            putShort(width);
+            putShort(height);
+            out.write(0xf1); // global color table of 4 colors, 8 bits per primary
+            out.write(0);    // background color
+            out.write(0);    // square pixels
+            for (int color : Chip8Scaler.DEFAULT_PALETTE) {
+                out.write(color >> 16);
+                out.write(color >> 8);
+                out.write(color);
+            }
+            // Loops forever
+            out.write(new byte[] {0x21, (byte) 0xff, 11});
+            out.write("NETSCAPE2.0".getBytes(StandardCharsets.US_ASCII));
+            out.write(new byte[] {3, 1, 0, 0, 0});
+            return (GIF_MIN_DELAY * framesPerSecond + 99) / 100;
+        }
+
+        @Override
+        void write(byte canvas[], int stride, int x, int y, int width, int height,
+                   long frames) throws IOException {
+            // Rounded on the running total so the delays add up exactly
+            long delay = Math.round((elapsed + frames) * 100.0 / framesPerSecond)
+                         - Math.round(elapsed * 100.0 / framesPerSecond);
+            elapsed += frames;
+            out.write(new byte[] {0x21, (byte) 0xf9, 4, 1 << 2}); // leave the frame in place
+            putShort((int) Math.min(delay, 0xffff));
+            out.write(0); // no transparent color
+            out.write(0);
+
+            out.write(0x2c);
+            putShort(x);
+            putShort(y);
+            putShort(width);
+            putShort(height);
+            out.write(0); // no local color table, not interlaced
+
+            if (pixels.length < width * height)
+                pixels = new byte[width * height];
+            for (int row = 0; row < height; row++)
+                System.arraycopy(canvas, (y + row) * stride + x, pixels, row * width, width);
+            compress(pixels, width * height);
+        }
+
+        private void compress(byte pixels[], int length) throws IOException {
+            out.write(MIN_CODE_SIZE);
+            bits = bitCount = blockLength = 0;
+            reset();
+            putCode(CLEAR);
+            int next = END + 1;
+            int prefix = pixels[0];
+            for (int i = 1; i < length; i++) {
+                int color = pixels[i];
+                int code = codes[prefix * COLORS + color];
+                if (code != 0) {
+                    prefix = code;
+                    continue;
+                }
+                putCode(prefix);
+                if (next < MAX_CODES) {
+                    codes[prefix * COLORS + color] = (short) next++;
+                    // The decoder adds each code one step later
+                    if (next > 1 << codeSize && codeSize < 12)
+                        codeSize++;
+                }
+                else {
+                    putCode(CLEAR);
+                    reset();
+                    next = END + 1;
+                }
+                prefix = color;
+            }
+            putCode(prefix);
+            putCode(END);
+            if (bitCount > 0)
+                putByte(bits);
+            if (blockLength > 0) {
+                out.write(blockLength);
+                out.write(block, 0, blockLength);
+            }
+            out.write(0);
+        }
+
+        private void reset() {
+            Arrays.fill(codes, (short) 0);
+            codeSize = MIN_CODE_SIZE + 1;
+        }
+
+        // Codes are packed least significant bit first into blocks of 255
+        private void putCode(int code) throws IOException {
+            bits |= code << bitCount;
+            bitCount += codeSize;
+            while (bitCount >= 8) {
+                putByte(bits);
+                bits >>>= 8;
+                bitCount -= 8;
+            }
+        }
+
+        private void putByte(int b) throws IOException {
+            block[blockLength++] = (byte) b;
+            if (blockLength == block.length) {
+                out.write(blockLength);
+                out.write(block);
+                blockLength = 0;
+            }
+        }
+
+        private void putShort(int value) throws IOException {
+            out.write(value);
+            out.write(value >> 8);
+        }
+
+        @Override
+        void finish() throws IOException {
+            out.write(0x3b);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    // APNG, two bits per pixel. The frame count in acTL is only known at
+    // the end and is patched in then.
+    private static final class PngSink extends FrameSink {
+        private static final byte SIGNATURE[] = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+        private static final int ACTL_POSITION = SIGNATURE.length + 12 + 13;
+
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater();
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        private final CRC32 crc = new CRC32();
+        private int framesPerSecond;
+        private int sequence;
+
+        PngSink(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        @Override
+        int start(int width, int height, int framesPerSecond) throws IOException {
+            this.framesPerSecond = framesPerSecond;
+            write(ByteBuffer.wrap(SIGNATURE));
+            chunk("IHDR", ByteBuffer.allocate(13).putInt(width).putInt(height)
+                                    .put((byte) 2).put((byte) 3) // 2 bit palette indices
+                                    .put((byte) 0).put((byte) 0).put((byte) 0).flip());
+            chunk("acTL", actl());
+            ByteBuffer palette = ByteBuffer.allocate(3 * COLORS);
+            for (int color : Chip8Scaler.DEFAULT_PALETTE)
+                palette.put((byte) (color >> 16)).put((byte) (color >> 8)).put((byte) color);
+            chunk("PLTE", palette.flip());
+            return 1;
+        }
+
+        private ByteBuffer actl() {
+            return ByteBuffer.allocate(8).putInt(getFrameCount()).putInt(0).flip(); // loops forever
+        }
+
+        @Override
+        void write(byte canvas[], int stride, int x, int y, int width, int height,
+                   long frames) throws IOException {
+            // Delays are a fraction, in seconds once frames would overflow it
+            int numerator = (int) Math.min(frames, 0xffff), denominator = framesPerSecond;
+            if (frames > 0xffff) {
+                numerator = (int) Math.min(frames / framesPerSecond, 0xffff);
+                denominator = 1;
+            }
+            chunk("fcTL", ByteBuffer.allocate(26).putInt(sequence++)
+                                    .putInt(width).putInt(height).putInt(x).putInt(y)
+                                    .putShort((short) numerator).putShort((short) denominator)
+                                    .put((byte) 0).put((byte) 0).flip()); // no dispose, replace
+
+            compressed.reset();
+            deflater.reset();
+            byte row[] = new byte[1 + (width + 3) / 4];
+            try (DeflaterOutputStream zlib = new DeflaterOutputStream(compressed, deflater)) {
+                for (int r = 0; r < height; r++) {
+                    Arrays.fill(row, (byte) 0); // filter type none
+                    int from = (y + r) * stride + x;
+                    for (int i = 0; i < width; i++)
+                        row[1 + (i >> 2)] |= canvas[from + i] << (6 - 2 * (i & 3));
+                    zlib.write(row);
+                }
+            }
+            byte data[] = compressed.toByteArray();
+            if (getFrameCount() == 0)
+                chunk("IDAT", ByteBuffer.wrap(data));
+            else
+                chunk("fdAT", ByteBuffer.allocate(4 + data.length).putInt(sequence++).put(data).flip());
+        }
+
+        // data from its position to its limit
+        private void chunk(String type, ByteBuffer data) throws IOException {
+            byte name[] = type.getBytes(StandardCharsets.US_ASCII);
+            crc.reset();
+            crc.update(name);
+            crc.update(data.duplicate());
+            ByteBuffer chunk = ByteBuffer.allocate(12 + data.remaining());
+            chunk.putInt(data.remaining()).put(name).put(data).putInt((int) crc.getValue());
+            write(chunk.flip());
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+
+        @Override
+        void finish() throws IOException {
+            chunk("IEND", ByteBuffer.allocate(0));
+            channel.position(ACTL_POSITION);
+            chunk("acTL", actl());
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    // Reads the records of a recording one at a time
+    static final class Reader {
+        private final ByteBuffer in;
+        final int framesPerSecond;
+        int width, height, planes;
+        // Frame number of the record last read
+        long number;
+        private byte bytes[];
+        private long frames = -1, dropped = -1;
+
+        Reader(Path path) throws IOException {
+            in = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (in.remaining() < Chip8Recorder.HEADER_SIZE || in.getInt() != Chip8Recorder.MAGIC)
+                throw new IOException(path + " is not a Chip8 recording");
+            int version = in.getInt();
+            if (version != Chip8Recorder.VERSION)
+                throw new IOException("Unsupported recording version " + version);
+            framesPerSecond = in.getInt();
+        }
+
+        // Moves to the next frame, decoding it if asked to. False after
+        // the last one, for a recording that was cut short after the
+        // last complete record.
+        boolean next(boolean decode) {
+            try {
+                int length;
+                byte type = in.get();
+                if (type == Chip8Recorder.KEYFRAME) {
+                    number = in.getLong();
+                    width = in.getShort() & 0xffff;
+                    height = in.getShort() & 0xffff;
+                    planes = in.get();
+                    length = in.getInt();
+                    if (decode)
+                        bytes = new byte[planes * height * (width >> 3)];
+                }
+                else if (type == Chip8Recorder.DELTA && width > 0) {
+                    number += getVarint();
+                    length = (int) getVarint();
+                }
+                else {
+                    if (type == Chip8Recorder.END) {
+                        frames = in.getLong();
+                        dropped = in.getLong();
+                    }
+                    return false;
+                }
+                if (length < 0 || length > in.remaining())
+                    return false;
+                if (decode)
+                    Chip8DeltaCodec.decode(in.array(), in.position(), length, bytes);
+                in.position(in.position() + length);
+                return true;
+            }
+            catch (BufferUnderflowException ex) {
+                return false;
+            }
+        }
+
+        private long getVarint() {
+            long value = 0;
+            for (int shift = 0;; shift += 7) {
+                byte b = in.get();
+                value |= (long) (b & 0x7f) << shift;
+                if (b >= 0)
+                    return value;
+            }
+        }
+
+        // The frame last read, after next(true)
+        Chip8Frame getFrame() {
+            return Chip8Frame.fromBytes(width, height, planes, bytes);
+        }
+
+        // Frames published while recording, from the end record if the
+        // recording has one
+        long getFrameCount() {
+            return frames >= 0 ? frames : number + 1;
+        }
+
+        // -1 if the recording was cut short
+        long getDroppedFrames() {
+            return dropped;
+        }
+    }
+}
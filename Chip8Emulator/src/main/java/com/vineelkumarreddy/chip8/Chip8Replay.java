@@ -0,0 +1,98 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Feeds a recorded Chip8InputLog back into a freshly loaded machine.
+ * The machine has to be in the recorded mode and hold the recorded ROM,
+ * it gets the recorded seed and instruction rate, and every key
+ * transition is handed to the keyboard right before the frame that
+ * starts on its cycle, so the CPU sees it exactly where the original run
+ * did. Frames run back to back, no pacing.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Replay {
+    private final Chip8Machine machine;
+    private final Chip8InputLog log;
+    private int next;
+
+    // machine must be at power on with the program already loaded
+    public Chip8Replay(Chip8Machine machine, Chip8InputLog log) {
+        if (machine.getMode() != log.getMode())
+            throw new IllegalArgumentException("Log was recorded in " + log.getMode()
+                                               + ", the machine is in " + machine.getMode());
+        if (!log.getRomHash().equals(machine.getRomHash()))
+            throw new IllegalArgumentException("Log was recorded with ROM " + log.getRomHash()
+                                               + ", the machine holds " + machine.getRomHash());
+        this.machine = machine;
+        this.log = log;
+        machine.getCPU().setSeed(log.getSeed());
+        machine.getScheduler().setInstructionsPerSecond(log.getInstructionsPerSecond());
+    }
+
+    public void runFrame() {
+        Chip8CPU cpu = machine.getCPU();
+        Chip8Keyboard keyboard = machine.getKeyboard();
+        long cycle = cpu.getCycles();
+        while (next < log.size() && log.getCycle(next) <= cycle) {
+            if (log.getCycle(next) != cycle)
+                throw new IllegalStateException("Replay diverged, event " + next + " is for cycle "
+                                                + log.getCycle(next) + " but the CPU is at " + cycle);
+            if (log.isPressed(next))
+                keyboard.press(log.getKey(next));
+            else
+                keyboard.release(log.getKey(next));
+            next++;
+        }
+        machine.runFrame();
+    }
+
+    // Replays every event, then runs extraFrames more
+    public void run(int extraFrames) {
+        while (!isFinished())
+            runFrame();
+        for (int i = 0; i < extraFrames; i++)
+            runFrame();
+    }
+
+    public boolean isFinished() {
+        return next == log.size();
+    }
+
+    public static void main(String... args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: Chip8Replay rom-file input-log [extra-frames]");
+            System.exit(1);
+        }
+        Chip8InputLog log = Chip8InputLog.read(Paths.get(args[1]));
+        Chip8Machine machine = new Chip8Machine(log.getMode());
+        machine.loadProgram(Paths.get(args[0]));
+        Chip8Replay replay = new Chip8Replay(machine, log);
+        long start = System.nanoTime();
+        replay.run(args.length == 3 ? Integer.parseInt(args[2]) : 0);
+        long elapsed = System.nanoTime() - start;
+
+        Chip8CPU cpu = machine.getCPU();
+        System.out.printf("%d frames, %d cycles in %d ms, PC=%03X I=%03X frame=%08X%n",
+                          machine.getScheduler().getFrames(), cpu.getCycles(), elapsed / 1000000,
+                          cpu.PC, cpu.I, machine.getDisplay().getPublishedFrame().hashCode());
+    }
+}
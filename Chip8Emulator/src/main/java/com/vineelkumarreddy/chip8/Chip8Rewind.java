@@ -0,0 +1,175 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a rolling history of machine snapshots, one per frame. Every
+ * keyframeInterval frames a full snapshot (run length encoded) starts a
+ * new segment; the other frames of the segment are stored as XOR/RLE
+ * deltas against that keyframe. Whole segments are dropped when the
+ * history is full, so a delta never outlives its keyframe.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Rewind {
+    public static final int DEFAULT_FRAMES = 60 * Chip8Scheduler.FRAMES_PER_SECOND;
+    public static final int DEFAULT_KEYFRAME_INTERVAL = Chip8Scheduler.FRAMES_PER_SECOND;
+
+    private final Chip8Machine machine;
+    private final int keyframeInterval;
+    private final Segment segments[];
+    private int oldest;   // index of the oldest segment in use
+    private int segmentCount;
+    private long bytesUsed;
+
+    // Scratch buffers reused for every capture and restore
+    private final byte current[];
+    private final byte keyframe[];
+    private final byte encoded[];
+    // The segment whose keyframe is currently decoded in keyframe[]
+    private Segment decoded;
+
+    private static final class Segment {
+        byte keyframe[];
+        byte deltas[][];
+        int frames; // keyframe included
+    }
+
+    public Chip8Rewind(Chip8Machine machine) {
+        this(machine, DEFAULT_FRAMES, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    // Keeps at least the given number of frames of history
+    public Chip8Rewind(Chip8Machine machine, int frames, int keyframeInterval) {
+        if (frames <= 0 || keyframeInterval <= 0)
+            throw new IllegalArgumentException("frames and keyframeInterval must be positive");
+        this.machine = machine;
+        this.keyframeInterval = keyframeInterval;
+        // One extra segment so that a full history survives evicting the oldest one
+        this.segments = new Segment[(frames + keyframeInterval - 1) / keyframeInterval + 1];
+        int size = Chip8Snapshot.size(machine);
+        this.current = new byte[size];
+        this.keyframe = new byte[size];
+        this.encoded = new byte[Chip8DeltaCodec.maxEncodedLength(size)];
+    }
+
+    // Records the machine as it is now, call once per frame
+    public void capture() {
+        Chip8Snapshot.save(machine, current);
+        Segment segment = segmentCount == 0 ? null : segments[index(segmentCount - 1)];
+        if (segment == null || segment.frames == keyframeInterval) {
+            if (segmentCount == segments.length)
+                dropOldest();
+            segment = new Segment();
+            segment.keyframe = encode(null);
+            segment.deltas = new byte[keyframeInterval - 1][];
+            segment.frames = 1;
+            segments[index(segmentCount++)] = segment;
+            bytesUsed += segment.keyframe.length;
+        }
+        else {
+            decodeKeyframe(segment);
+            byte delta[] = encode(keyframe);
+            segment.deltas[segment.frames++ - 1] = delta;
+            bytesUsed += delta.length;
+        }
+    }
+
+    // Number of frames that can currently be rewound
+    public int getFrames() {
+        if (segmentCount == 0)
+            return 0;
+        return (segmentCount - 1) * keyframeInterval + segments[index(segmentCount - 1)].frames;
+    }
+
+    public long getBytesUsed() {
+        return bytesUsed;
+    }
+
+    // Restores the state captured the given number of frames ago (0 is the
+    // latest capture) and forgets everything newer than it
+    public void rewind(int frames) {
+        int available = getFrames();
+        if (frames < 0 || frames >= available)
+            throw new IllegalArgumentException("Only " + available + " frames of history");
+        int target = available - 1 - frames;
+        int segmentIndex = target / keyframeInterval;
+        int frame = target % keyframeInterval;
+
+        Segment segment = segments[index(segmentIndex)];
+        decodeKeyframe(segment);
+        System.arraycopy(keyframe, 0, current, 0, current.length);
+        if (frame > 0) {
+            byte delta[] = segment.deltas[frame - 1];
+            Chip8DeltaCodec.decode(delta, delta.length, current);
+        }
+        Chip8Snapshot.restore(machine, current);
+
+        // Truncate the history after the restored frame
+        for (int i = frame + 1; i < segment.frames; i++) {
+            bytesUsed -= segment.deltas[i - 1].length;
+            segment.deltas[i - 1] = null;
+        }
+        segment.frames = frame + 1;
+        while (segmentCount > segmentIndex + 1) {
+            Segment dropped = segments[index(--segmentCount)];
+            bytesUsed -= size(dropped);
+            segments[index(segmentCount)] = null;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(segments, null);
+        decoded = null;
+        oldest = 0;
+        segmentCount = 0;
+        bytesUsed = 0;
+    }
+
+    private void dropOldest() {
+        bytesUsed -= size(segments[oldest]);
+        segments[oldest] = null;
+        oldest = (oldest + 1) % segments.length;
+        segmentCount--;
+    }
+
+    private int index(int segment) {
+        return (oldest + segment) % segments.length;
+    }
+
+    private byte[] encode(byte previous[]) {
+        int length = Chip8DeltaCodec.encode(previous, current, current.length, encoded);
+        return Arrays.copyOf(encoded, length);
+    }
+
+    private void decodeKeyframe(Segment segment) {
+        if (decoded == segment)
+            return;
+        decoded = segment;
+        Arrays.fill(keyframe, (byte) 0);
+        Chip8DeltaCodec.decode(segment.keyframe, segment.keyframe.length, keyframe);
+    }
+
+    private static long size(Segment segment) {
+        long size = segment.keyframe.length;
+        for (int i = 0; i < segment.frames - 1; i++)
+            size += segment.deltas[i].length;
+        return size;
+    }
+}
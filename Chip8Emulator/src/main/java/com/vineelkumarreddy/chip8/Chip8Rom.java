@@ -0,0 +1,97 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * A program image identified by the SHA-256 of its contents, so the
+ * same ROM is recognised whatever it is called or wherever it came from.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Rom {
+    private final String name;
+    private final byte data[];
+    private final String hash;
+
+    public Chip8Rom(String name, byte data[]) {
+        this.name = name;
+        this.data = data.clone();
+        this.hash = sha256(this.data);
+    }
+
+    public static Chip8Rom read(Path path) throws IOException {
+        return new Chip8Rom(path.getFileName().toString(), Files.readAllBytes(path));
+    }
+
+    private static String sha256(byte data[]) {
+        try {
+            byte digest[] = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(2 * digest.length);
+            for (byte b : digest)
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException ex) {
+            // Every Java platform has to provide SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Lower case hex
+    public String getHash() {
+        return hash;
+    }
+
+    public int getSize() {
+        return data.length;
+    }
+
+    public byte[] getData() {
+        return data.clone();
+    }
+
+    // Loads the program without copying it first
+    void loadInto(Chip8Memory ram) {
+        ram.loadProgram(data);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Chip8Rom && Arrays.equals(data, ((Chip8Rom) obj).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + hash.substring(0, 12) + ")";
+    }
+}
@@ -0,0 +1,231 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * What can be learnt about a ROM without running it. Starting at the
+ * load address, every instruction reachable through jumps, calls and
+ * skips is decoded; the mode the program needs follows from the
+ * instructions it uses, and the addresses where the JIT will look for a
+ * block follow from where control flow splits or joins. A machine the
+ * ROM was just loaded into can be handed all of it up front, see
+ * Chip8Machine.loadProgram(Chip8Rom, Chip8RomAnalysis). Quirks cannot
+ * be set apart from the mode, so the mode is all that gets detected.
+ *
+ * File layout, big endian: magic, version, mode, decoder fingerprint,
+ * entry count, then an address and a decoded entry per instruction,
+ * then the block leaders. A file whose fingerprint is not that of the
+ * running decoder is refused, its entries may mean something else.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8RomAnalysis {
+    static final int MAGIC = 0x43385241; // C8RA
+    // Changes with the file layout. Changes to Chip8Decoder's handler
+    // numbers or entry layout, and to the idle loop and block rules, are
+    // caught by the fingerprint.
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 4;
+
+    private final String hash;
+    private final Chip8Mode mode;
+    // Reachable instruction addresses and their Chip8Decoder entries
+    final int addresses[];
+    final int entries[];
+    // Addresses the JIT will ask for a block at
+    final int leaders[];
+
+    private Chip8RomAnalysis(String hash, Chip8Mode mode, int addresses[], int entries[], int leaders[]) {
+        this.hash = hash;
+        this.mode = mode;
+        this.addresses = addresses;
+        this.entries = entries;
+        this.leaders = leaders;
+    }
+
+    public static Chip8RomAnalysis analyse(Chip8Rom rom) {
+        Chip8Mode mode = detectMode(rom);
+        Chip8Memory ram = new Chip8Memory(mode.getMemorySize());
+        rom.loadInto(ram);
+        Chip8Decoder decoder = new Chip8Decoder(ram, mode);
+        BitSet reachable = new BitSet(ram.size());
+        BitSet leaders = new BitSet(ram.size());
+        walk(ram, decoder, mode, rom.getSize(), reachable, leaders);
+
+        int addresses[] = reachable.stream().toArray();
+        int entries[] = new int[addresses.length];
+        for (int i = 0; i < addresses.length; i++)
+            entries[i] = decoder.get(addresses[i]);
+        return new Chip8RomAnalysis(rom.getHash(), mode, addresses, entries, leaders.stream().toArray());
+    }
+
+    // The simplest mode that defines every instruction the program can
+    // reach. XO-CHIP defines them all, so that is what the walk uses.
+    private static Chip8Mode detectMode(Chip8Rom rom) {
+        if (rom.getSize() > Chip8Memory.MAX_PROGRAM_SIZE)
+            return Chip8Mode.XO_CHIP;
+        Chip8Memory ram = new Chip8Memory(Chip8Mode.XO_CHIP.getMemorySize());
+        rom.loadInto(ram);
+        Chip8Decoder decoder = new Chip8Decoder(ram, Chip8Mode.XO_CHIP);
+        BitSet reachable = new BitSet(ram.size());
+        walk(ram, decoder, Chip8Mode.XO_CHIP, rom.getSize(), reachable, new BitSet());
+        Chip8Mode mode = Chip8Mode.CHIP8;
+        for (int pc = reachable.nextSetBit(0); pc >= 0; pc = reachable.nextSetBit(pc + 1)) {
+            int handler = decoder.get(pc) >>> 24;
+            if (handler >= Chip8Decoder.SCU)
+                return Chip8Mode.XO_CHIP;
+            if (handler >= Chip8Decoder.SCD)
+                mode = Chip8Mode.SUPER_CHIP;
+        }
+        return mode;
+    }
+
+    // Control flow that leaves the ROM is not followed
+    private static void walk(Chip8Memory ram, Chip8Decoder decoder, Chip8Mode mode, int size,
+                             BitSet reachable, BitSet leaders) {
+        int mask = ram.size() - 1;
+        int start = Chip8Memory.DEFAULT_LOAD_ADDRESS;
+        int end = start + size;
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(Chip8Memory.DEFAULT_LOAD_ADDRESS);
+        leaders.set(Chip8Memory.DEFAULT_LOAD_ADDRESS);
+        while (!pending.isEmpty()) {
+            int pc = pending.pop();
+            if (pc < start || pc >= end || reachable.get(pc))
+                continue;
+            reachable.set(pc);
+            int op = decoder.get(pc);
+            int next = (pc + 2) & mask;
+            switch (op >>> 24) {
+                case Chip8Decoder.JP:
+                case Chip8Decoder.JP_IDLE:
+                    branch(pending, leaders, Chip8Decoder.imm(op) & mask);
+                    break;
+                case Chip8Decoder.CALL:
+                    branch(pending, leaders, Chip8Decoder.imm(op) & mask);
+                    branch(pending, leaders, next);
+                    break;
+                case Chip8Decoder.RET:
+                case Chip8Decoder.EXIT:
+                case Chip8Decoder.JP_V0:
+                case Chip8Decoder.JP_VX:
+                    break;
+                case Chip8Decoder.SE_BYTE:
+                case Chip8Decoder.SNE_BYTE:
+                case Chip8Decoder.SE_REG:
+                case Chip8Decoder.SNE_REG:
+                case Chip8Decoder.SKP:
+                case Chip8Decoder.SKNP:
+                    boolean overLong = mode == Chip8Mode.XO_CHIP && ram.getWord(next) == 0xF000;
+                    branch(pending, leaders, next);
+                    branch(pending, leaders, (next + (overLong ? 4 : 2)) & mask);
+                    break;
+                case Chip8Decoder.LD_I_LONG:
+                    pending.push((pc + 4) & mask);
+                    break;
+                default:
+                    // The JIT leaves these to the interpreter and asks
+                    // for a new block right after them
+                    if (Chip8BlockCompiler.endsBlock(ram.getWord(pc), mode)) {
+                        leaders.set(pc);
+                        leaders.set(next);
+                    }
+                    pending.push(next);
+                    break;
+            }
+        }
+    }
+
+    private static void branch(Deque<Integer> pending, BitSet leaders, int target) {
+        leaders.set(target);
+        pending.push(target);
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    // The mode the ROM needs to run
+    public Chip8Mode getMode() {
+        return mode;
+    }
+
+    public int getReachableInstructions() {
+        return addresses.length;
+    }
+
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + addresses.length * 8 + 4 + leaders.length * 4);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(mode.ordinal()).putInt(Chip8Decoder.fingerprint(mode));
+        buffer.putInt(addresses.length);
+        for (int i = 0; i < addresses.length; i++)
+            buffer.putInt(addresses[i]).putInt(entries[i]);
+        buffer.putInt(leaders.length);
+        for (int leader : leaders)
+            buffer.putInt(leader);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    // hash is the ROM the file was written for, it is not stored in it
+    public static Chip8RomAnalysis read(Path path, String hash) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new IOException(path + " is not a Chip8 ROM analysis");
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported ROM analysis version " + version);
+        int modeIndex = buffer.getInt();
+        if (modeIndex < 0 || modeIndex >= Chip8Mode.values().length)
+            throw new IOException(path + " has an unknown mode " + modeIndex);
+        Chip8Mode mode = Chip8Mode.values()[modeIndex];
+        if (buffer.getInt() != Chip8Decoder.fingerprint(mode))
+            throw new IOException(path + " was written by a different decoder");
+        int mask = mode.getMemorySize() - 1;
+        int count = buffer.getInt();
+        if (count < 0 || buffer.remaining() < count * 8L + 4)
+            throw new IOException(path + " is truncated");
+        int addresses[] = new int[count];
+        int entries[] = new int[count];
+        for (int i = 0; i < count; i++) {
+            addresses[i] = buffer.getInt() & mask;
+            entries[i] = buffer.getInt();
+        }
+        int leaderCount = buffer.getInt();
+        if (leaderCount < 0 || buffer.remaining() < leaderCount * 4L)
+            throw new IOException(path + " is truncated");
+        int leaders[] = new int[leaderCount];
+        for (int i = 0; i < leaderCount; i++)
+            leaders[i] = buffer.getInt() & mask;
+        return new Chip8RomAnalysis(hash, mode, addresses, entries, leaders);
+    }
+}
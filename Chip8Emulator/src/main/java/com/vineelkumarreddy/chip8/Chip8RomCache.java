@@ -0,0 +1,97 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the Chip8RomAnalysis of every ROM seen so far, in memory and on
+ * disk under directory/sha-256/, so a ROM is only ever analysed once.
+ * The cache only saves time: an entry that cannot be read is analysed
+ * again, and one that cannot be written is simply not kept.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8RomCache {
+    static final String ANALYSIS_FILE = "analysis";
+
+    private final Path directory;
+    private final Map<String, Chip8RomAnalysis> loaded = new ConcurrentHashMap<>();
+
+    public Chip8RomCache(Path directory) {
+        this.directory = directory;
+    }
+
+    // ~/.chip8/cache
+    public static Chip8RomCache openDefault() {
+        return new Chip8RomCache(Paths.get(System.getProperty("user.home"), ".chip8", "cache"));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Chip8RomAnalysis get(Chip8Rom rom) {
+        return loaded.computeIfAbsent(rom.getHash(), hash -> load(rom));
+    }
+
+    private Chip8RomAnalysis load(Chip8Rom rom) {
+        Path file = directory.resolve(rom.getHash()).resolve(ANALYSIS_FILE);
+        if (Files.isRegularFile(file)) {
+            try {
+                return Chip8RomAnalysis.read(file, rom.getHash());
+            }
+            catch (IOException ex) {
+                // Written by another version or damaged, replace it below
+            }
+        }
+        Chip8RomAnalysis analysis = Chip8RomAnalysis.analyse(rom);
+        store(analysis, file);
+        return analysis;
+    }
+
+    // Written to a temporary file first, so that other processes sharing
+    // the cache never see half an entry
+    private static void store(Chip8RomAnalysis analysis, Path file) {
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), ANALYSIS_FILE, ".tmp");
+            analysis.write(temp);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+        }
+        catch (IOException ex) {
+            // A read only home directory just means no cache
+        }
+        finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                }
+                catch (IOException ex) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A set of ROMs that can be looked up by name or by hash. The ROMs
+ * bundled with the emulator are listed in roms/index on the classpath,
+ * one name per line.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8RomCatalog {
+    static final String INDEX_FILE = "index";
+    static final String CLASSPATH_INDEX = "/roms/" + INDEX_FILE;
+
+    // Keyed by lower case name, in load order
+    private final Map<String, Chip8Rom> byName = new LinkedHashMap<>();
+    private final Map<String, Chip8Rom> byHash = new HashMap<>();
+
+    private Chip8RomCatalog() {
+    }
+
+    public static Chip8RomCatalog fromClasspath() throws IOException {
+        Chip8RomCatalog catalog = new Chip8RomCatalog();
+        InputStream index = Chip8RomCatalog.class.getResourceAsStream(CLASSPATH_INDEX);
+        if (index == null)
+            return catalog;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8))) {
+            String name;
+            while ((name = reader.readLine()) != null) {
+                name = name.trim();
+                if (name.isEmpty() || name.startsWith("#"))
+                    continue;
+                try (InputStream in = Chip8RomCatalog.class.getResourceAsStream("/roms/" + name)) {
+                    if (in == null)
+                        throw new IOException("ROM " + name + " is listed in " + CLASSPATH_INDEX + " but missing");
+                    catalog.add(new Chip8Rom(name, in.readAllBytes()));
+                }
+            }
+        }
+        return catalog;
+    }
+
+    // Every regular file directly inside the directory but an index
+    public static Chip8RomCatalog fromDirectory(Path directory) throws IOException {
+        Chip8RomCatalog catalog = new Chip8RomCatalog();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                if (Files.isRegularFile(file) && !file.getFileName().toString().equals(INDEX_FILE))
+                    catalog.add(Chip8Rom.read(file));
+            }
+        }
+        return catalog;
+    }
+
+    private void add(Chip8Rom rom) {
+        byName.put(rom.getName().toLowerCase(Locale.ROOT), rom);
+        byHash.putIfAbsent(rom.getHash(), rom);
+    }
+
+    // Names are matched ignoring case, null when there is no such ROM
+    public Chip8Rom get(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public Chip8Rom getByHash(String hash) {
+        return byHash.get(hash.toLowerCase(Locale.ROOT));
+    }
+
+    public Collection<Chip8Rom> getRoms() {
+        return Collections.unmodifiableCollection(byName.values());
+    }
+
+    public int size() {
+        return byName.size();
+    }
+}
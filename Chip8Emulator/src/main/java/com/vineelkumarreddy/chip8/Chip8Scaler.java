@@ -0,0 +1,316 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Turns published frames into ARGB pixels. Everything works on packed
+ * rows: Scale2x compares 64 pixels at a time with a few ANDs and XORs,
+ * and the final expansion turns each byte of a row into eight pixels
+ * through lookup tables, so the cost follows the filtered size and not
+ * the size of the window. Phosphor persistence lets pixels that go dark
+ * fade out over a few renders instead of flickering. Large outputs are
+ * filled in parallel, one band of rows per task.
+ *
+ * A scaler remembers the previous frame and the phosphor levels, so it
+ * must only be used by one thread at a time; its settings never change.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Scaler {
+    // Indexed by the plane bits of a pixel, XO-CHIP uses all four
+    public static final int DEFAULT_PALETTE[] = {
+        0xff000000, 0xff00ff00, 0xffffc800, 0xffffffff
+    };
+    // Phosphor levels, a lit pixel is at LEVELS - 1
+    private static final int LEVELS = 16;
+    // Bands smaller than this are not worth handing to another thread
+    private static final int MIN_BAND_PIXELS = 1 << 16;
+
+    // Bit k of b in the 4 bit lane k, so the leftmost pixel is on top
+    private static final int SPREAD[] = new int[256];
+    // Bit k of b at bit 2k + 1, to interleave two rows of pixels
+    private static final int INTERLEAVE[] = new int[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            for (int k = 0; k < 8; k++) {
+                if ((b & (1 << k)) != 0) {
+                    SPREAD[b] |= 1 << (4 * k);
+                    INTERLEAVE[b] |= 1 << (2 * k + 1);
+                }
+            }
+        }
+    }
+
+    private final Chip8Filter filter;
+    private final int scale;
+    private final int persistence;
+    private final int palette[];
+    // Levels a dark pixel loses per render
+    private final int decay;
+    // Indexed by color << 4 | level
+    private final int shades[] = new int[LEVELS * LEVELS];
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // The frame after each Scale2x pass, packed like Chip8Frame
+    private long buffers[][];
+    // Size of the last buffer
+    private int planes, width, height, words;
+    private byte level[], lastColor[];
+    private boolean sourceDirty[], dirty[], fading[];
+    private boolean anyFading;
+    private Chip8Frame previous;
+    private int previousOut[];
+
+    public Chip8Scaler(Chip8Filter filter, int scale) {
+        this(filter, scale, 0, DEFAULT_PALETTE);
+    }
+
+    // persistence is the number of renders a dark pixel takes to fade
+    // out, 0 for none. palette needs a color for every plane combination.
+    public Chip8Scaler(Chip8Filter filter, int scale, int persistence, int palette[]) {
+        if (scale <= 0)
+            throw new IllegalArgumentException("scale must be positive");
+        if (persistence < 0)
+            throw new IllegalArgumentException("persistence must not be negative");
+        if (palette.length < 1 << Chip8Mode.XO_CHIP.getPlanes())
+            throw new IllegalArgumentException("palette needs " + (1 << Chip8Mode.XO_CHIP.getPlanes()) + " colors");
+        this.filter = filter;
+        this.scale = scale;
+        this.persistence = persistence;
+        this.palette = palette.clone();
+        this.decay = persistence == 0 ? LEVELS : (LEVELS - 2 + persistence) / persistence;
+        for (int color = 0; color < Math.min(palette.length, LEVELS); color++) {
+            for (int l = 0; l < LEVELS; l++)
+                shades[color << 4 | l] = blend(palette[0], palette[color], l);
+        }
+    }
+
+    private static int blend(int background, int color, int l) {
+        int argb = 0xff000000;
+        for (int shift = 0; shift < 24; shift += 8) {
+            int from = (background >> shift) & 0xff, to = (color >> shift) & 0xff;
+            argb |= (from + (to - from) * l / (LEVELS - 1)) << shift;
+        }
+        return argb;
+    }
+
+    public Chip8Filter getFilter() {
+        return filter;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int getPersistence() {
+        return persistence;
+    }
+
+    public int getOutputWidth(Chip8Frame frame) {
+        return frame.getWidth() * filter.getFactor() * scale;
+    }
+
+    public int getOutputHeight(Chip8Frame frame) {
+        return frame.getHeight() * filter.getFactor() * scale;
+    }
+
+    // True while some pixels are still fading, rendering the same frame
+    // again will change them
+    public boolean isFading() {
+        return anyFading;
+    }
+
+    // Draws frame into out, which must hold exactly getOutputWidth(frame)
+    // * getOutputHeight(frame) pixels. Only the rows that changed since
+    // the last render into the same array are written.
+    public void render(Chip8Frame frame, int out[]) {
+        boolean full = out != previousOut || !frame.sameGeometry(previous);
+        if (full)
+            allocate(frame);
+        if (full || frame != previous)
+            filter(frame);
+        markDirty(frame, full);
+
+        int bands = Math.min(Math.min(parallelism, height), width * height * scale * scale / MIN_BAND_PIXELS);
+        if (bands <= 1)
+            expand(out, 0, height);
+        else
+            IntStream.range(0, bands).parallel()
+                    .forEach(band -> expand(out, band * height / bands, (band + 1) * height / bands));
+
+        anyFading = false;
+        for (boolean rowFading : fading)
+            anyFading |= rowFading;
+        previous = frame;
+        previousOut = out;
+    }
+
+    private void allocate(Chip8Frame frame) {
+        int passes = filter.getPasses();
+        planes = frame.getPlanes();
+        buffers = new long[passes + 1][];
+        for (int pass = 0; pass <= passes; pass++)
+            buffers[pass] = new long[planes * (frame.getHeight() << pass) * (frame.getWordsPerRow() << pass)];
+        width = frame.getWidth() << passes;
+        height = frame.getHeight() << passes;
+        words = width >> 6;
+        if (persistence > 0) {
+            level = new byte[width * height];
+            lastColor = new byte[width * height];
+        }
+        sourceDirty = new boolean[frame.getHeight()];
+        dirty = new boolean[height];
+        fading = new boolean[height];
+    }
+
+    private void filter(Chip8Frame frame) {
+        long source[] = buffers[0];
+        int sourceWords = frame.getWordsPerRow(), sourceHeight = frame.getHeight();
+        for (int plane = 0, i = 0; plane < planes; plane++) {
+            for (int y = 0; y < sourceHeight; y++) {
+                for (int word = 0; word < sourceWords; word++)
+                    source[i++] = frame.getWord(plane, y, word);
+            }
+        }
+        for (int pass = 1; pass < buffers.length; pass++)
+            scale2x(buffers[pass - 1], sourceWords << (pass - 1), sourceHeight << (pass - 1), buffers[pass]);
+    }
+
+    /*
+    Scale2x splits every pixel E into four, looking at its neighbours B
+    above, D to the left, F to the right and H below:
+
+        E0 = D == B && B != F && D != H ? D : E     E0 E1
+        E1 = B == F && B != D && F != H ? F : E     E2 E3
+        E2 = D == H && D != B && H != F ? D : E
+        E3 = H == F && D != H && B != F ? F : E
+
+    With the rows packed, D and F are E shifted by one, and two pixels are
+    equal when they match in every plane, so each condition becomes a mask
+    for 64 pixels at once. Pixels past the edges repeat E.
+     */
+    private void scale2x(long src[], int srcWords, int srcHeight, long dst[]) {
+        int dstWords = srcWords * 2;
+        long es[] = new long[planes], ds[] = new long[planes], fs[] = new long[planes];
+        for (int y = 0; y < srcHeight; y++) {
+            int up = Math.max(y - 1, 0), down = Math.min(y + 1, srcHeight - 1);
+            for (int i = 0; i < srcWords; i++) {
+                long eqDB = -1, eqBF = -1, eqDH = -1, eqFH = -1;
+                for (int plane = 0; plane < planes; plane++) {
+                    int row = (plane * srcHeight + y) * srcWords;
+                    long e = src[row + i];
+                    long d = (e >>> 1) | (i > 0 ? src[row + i - 1] << 63 : e & Long.MIN_VALUE);
+                    long f = (e << 1) | (i < srcWords - 1 ? src[row + i + 1] >>> 63 : e & 1);
+                    long b = src[(plane * srcHeight + up) * srcWords + i];
+                    long h = src[(plane * srcHeight + down) * srcWords + i];
+                    eqDB &= ~(d ^ b);
+                    eqBF &= ~(b ^ f);
+                    eqDH &= ~(d ^ h);
+                    eqFH &= ~(f ^ h);
+                    es[plane] = e;
+                    ds[plane] = d;
+                    fs[plane] = f;
+                }
+                long m0 = eqDB & ~eqBF & ~eqDH, m1 = eqBF & ~eqDB & ~eqFH;
+                long m2 = eqDH & ~eqDB & ~eqFH, m3 = eqFH & ~eqDH & ~eqBF;
+                for (int plane = 0; plane < planes; plane++) {
+                    long e = es[plane], d = ds[plane], f = fs[plane];
+                    long e0 = e ^ ((e ^ d) & m0), e1 = e ^ ((e ^ f) & m1);
+                    long e2 = e ^ ((e ^ d) & m2), e3 = e ^ ((e ^ f) & m3);
+                    int top = (plane * 2 * srcHeight + 2 * y) * dstWords + 2 * i, bottom = top + dstWords;
+                    dst[top] = interleave(e0 >>> 32, e1 >>> 32);
+                    dst[top + 1] = interleave(e0, e1);
+                    dst[bottom] = interleave(e2 >>> 32, e3 >>> 32);
+                    dst[bottom + 1] = interleave(e2, e3);
+                }
+            }
+        }
+    }
+
+    // The low 32 pixels of a and b taken in turn, a first
+    private static long interleave(long a, long b) {
+        long mixed = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int pair = INTERLEAVE[(int) (a >>> shift) & 0xff] | INTERLEAVE[(int) (b >>> shift) & 0xff] >>> 1;
+            mixed |= (long) pair << (2 * shift);
+        }
+        return mixed;
+    }
+
+    // A filtered row has to be redrawn when any source row it was built
+    // from changed; each Scale2x pass reaches one row further
+    private void markDirty(Chip8Frame frame, boolean full) {
+        int sourceHeight = frame.getHeight(), reach = filter.getPasses();
+        for (int y = 0; y < sourceHeight; y++)
+            sourceDirty[y] = full || (frame != previous && !frame.sameRow(previous, y));
+        int factor = filter.getFactor();
+        for (int y = 0; y < height; y++) {
+            int source = y / factor;
+            boolean changed = false;
+            for (int s = Math.max(source - reach, 0); s <= Math.min(source + reach, sourceHeight - 1); s++)
+                changed |= sourceDirty[s];
+            dirty[y] = changed;
+        }
+    }
+
+    // Writes filtered rows [from, to) as pixels, each one scale times
+    private void expand(int out[], int from, int to) {
+        long bits[] = buffers[buffers.length - 1];
+        int outWidth = width * scale;
+        for (int y = from; y < to; y++) {
+            if (!dirty[y] && !fading[y])
+                continue;
+            boolean rowFading = false;
+            int start = y * scale * outWidth, o = start;
+            for (int x = 0; x < width; x += 8) {
+                int shift = 56 - (x & 63), lanes = 0;
+                for (int plane = 0; plane < planes; plane++)
+                    lanes |= SPREAD[(int) (bits[(plane * height + y) * words + (x >> 6)] >>> shift) & 0xff] << plane;
+                for (int i = 0; i < 8; i++) {
+                    int color = (lanes >>> (28 - 4 * i)) & 0xf;
+                    int argb = palette[color];
+                    if (persistence > 0) {
+                        int at = y * width + x + i;
+                        if (color != 0) {
+                            level[at] = LEVELS - 1;
+                            lastColor[at] = (byte) color;
+                        }
+                        else {
+                            int l = Math.max(level[at] - decay, 0);
+                            level[at] = (byte) l;
+                            argb = shades[lastColor[at] << 4 | l];
+                            rowFading |= l != 0;
+                        }
+                    }
+                    if (scale == 1)
+                        out[o++] = argb;
+                    else {
+                        Arrays.fill(out, o, o + scale, argb);
+                        o += scale;
+                    }
+                }
+            }
+            for (int r = 1; r < scale; r++)
+                System.arraycopy(out, start, out, start + r * outWidth, outWidth);
+            fading[y] = rowFading;
+        }
+    }
+}
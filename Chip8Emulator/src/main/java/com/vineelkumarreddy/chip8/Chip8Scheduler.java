@@ -0,0 +1,192 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a CPU in 60 Hz frames. Every frame runs a fixed share of the
+ * configured instructions per second and then ticks DT and ST, all on
+ * the calling thread, so the timers always stay in step with the
+ * instruction count, and then publishes the finished frame for
+ * renderers. Real time pacing only decides when a frame starts; in
+ * turbo mode frames simply run back to back.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Scheduler {
+    public static final int FRAMES_PER_SECOND = 60;
+    public static final int DEFAULT_INSTRUCTIONS_PER_SECOND = 600;
+    static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / FRAMES_PER_SECOND;
+    // When the host falls further behind than this we stop catching up
+    private static final long MAX_LAG_NANOS = 10 * FRAME_NANOS;
+
+    private final Chip8CPU cpu;
+    private int instructionsPerSecond = DEFAULT_INSTRUCTIONS_PER_SECOND;
+    // Carries the remainder when instructionsPerSecond is not a multiple of 60
+    int instructionRemainder;
+    private long frames;
+    private Chip8Audio audio;
+    // Created on first use, a fork only pays for it once it is watched
+    private volatile Chip8Metrics metrics;
+    private volatile Chip8Debugger debugger;
+    private volatile boolean turbo;
+    private volatile boolean running;
+    private volatile Thread runner;
+
+    public Chip8Scheduler(Chip8CPU cpu) {
+        this.cpu = cpu;
+    }
+
+    // A scheduler for a forked CPU at the same point in the frame. Audio
+    // and metrics start out fresh.
+    Chip8Scheduler fork(Chip8CPU cpu) {
+        Chip8Scheduler scheduler = new Chip8Scheduler(cpu);
+        scheduler.instructionsPerSecond = instructionsPerSecond;
+        scheduler.instructionRemainder = instructionRemainder;
+        scheduler.frames = frames;
+        scheduler.turbo = turbo;
+        return scheduler;
+    }
+
+    public void setInstructionsPerSecond(int instructionsPerSecond) {
+        if (instructionsPerSecond <= 0)
+            throw new IllegalArgumentException("instructionsPerSecond must be positive");
+        this.instructionsPerSecond = instructionsPerSecond;
+    }
+
+    public int getInstructionsPerSecond() {
+        return instructionsPerSecond;
+    }
+
+    // Turbo mode drops wall clock pacing, the timers still tick once
+    // every frame worth of instructions
+    public void setTurbo(boolean turbo) {
+        this.turbo = turbo;
+    }
+
+    public boolean isTurbo() {
+        return turbo;
+    }
+
+    // Gated by ST at the end of every frame, null for silence
+    public void setAudio(Chip8Audio audio) {
+        this.audio = audio;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public Chip8Metrics getMetrics() {
+        Chip8Metrics metrics = this.metrics;
+        if (metrics == null) {
+            synchronized (this) {
+                metrics = this.metrics;
+                if (metrics == null)
+                    this.metrics = metrics = new Chip8Metrics();
+            }
+        }
+        return metrics;
+    }
+
+    void setDebugger(Chip8Debugger debugger) {
+        this.debugger = debugger;
+    }
+
+    public void runFrame() {
+        Chip8Metrics metrics = this.metrics;
+        if (metrics != null)
+            metrics.syncMonitor(cpu);
+        Chip8Debugger debugger = this.debugger;
+        if (debugger != null) {
+            debugger.syncMonitor(cpu);
+            // Nothing moves while suspended, the timers included
+            if (debugger.isSuspended()) {
+                if (metrics != null)
+                    metrics.resetClock();
+                if (audio != null)
+                    audio.silence();
+                return;
+            }
+        }
+
+        instructionRemainder += instructionsPerSecond;
+        int instructions = instructionRemainder / FRAMES_PER_SECOND;
+        instructionRemainder %= FRAMES_PER_SECOND;
+        cpu.runCycles(instructions);
+        cpu.tickTimers();
+        cpu.getDisplay().publish();
+        frames++;
+        if (metrics != null)
+            metrics.frameFinished(cpu, frames, !turbo);
+        if (audio != null)
+            audio.update(cpu.ST > 0, cpu.patternHigh, cpu.patternLow, cpu.pitch);
+    }
+
+    // Runs frames on the calling thread until stop(). A program that is
+    // halted or waiting for a key keeps its timers and display going until
+    // the timers run out, then the thread parks until a key is pressed.
+    public void run() {
+        runner = Thread.currentThread();
+        running = true;
+        Chip8KeyListener wakeUp = (key, pressed) -> LockSupport.unpark(runner);
+        cpu.getKeyboard().addKeyListener(wakeUp);
+        try {
+            runFrames();
+        }
+        finally {
+            cpu.getKeyboard().removeKeyListener(wakeUp);
+        }
+    }
+
+    private void runFrames() {
+        long deadline = System.nanoTime();
+        while (running) {
+            if (isParked()) {
+                LockSupport.park(this);
+                deadline = System.nanoTime();
+                Chip8Metrics metrics = this.metrics;
+                if (metrics != null)
+                    metrics.resetClock();
+                continue;
+            }
+            runFrame();
+            if (turbo)
+                continue;
+            deadline += FRAME_NANOS;
+            long now = System.nanoTime();
+            if (now - deadline > MAX_LAG_NANOS)
+                deadline = now;
+            else if (deadline > now)
+                LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+
+    // Nothing can change until a key is pressed
+    private boolean isParked() {
+        return (cpu.isHalted() || cpu.isWaitingForKey()) && cpu.DT == 0 && cpu.ST == 0;
+    }
+
+    public void stop() {
+        running = false;
+        Thread runner = this.runner;
+        if (runner != null)
+            LockSupport.unpark(runner);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Saves and restores the complete state of a Chip8Machine as a small
+ * versioned blob. Everything is stored as bytes in big endian order:
+ *
+ *   magic "C8SS", version, mode, V0-VF, I, DT, ST, PC, SP, stack[16],
+ *   RPL flags[16], audio pattern[16], pitch, state flags, scheduler
+ *   remainder, RNG state, cycles, idle cycles, halted cycles, key wait
+ *   cycles, keys held down, last key press, RAM, framebuffer
+ *
+ * The RNG state is that of the seeded generator; one given to
+ * Chip8CPU.setRandom is not saved and stays as it is on restore. Key
+ * events still queued are not part of the state either.
+ *
+ * A snapshot only restores into a machine of the same mode.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public final class Chip8Snapshot {
+    static final int MAGIC = 0x43385353; // C8SS
+    static final int VERSION = 4;
+
+    private static final int FLAG_HALTED = 0x1;
+    // Fx0A is pending, the register it stores into is in the upper nibble
+    private static final int FLAG_WAITING_FOR_KEY = 0x2;
+    // Stored in place of the RNG state when there is none to save
+    private static final long NO_RANDOM_STATE = -1;
+    private static final int REGISTERS_SIZE = 4 + 1 + 1 + 16 + 2 + 1 + 1 + 2 + 1 + 16 * 2 + 16 + 16 + 1 + 1 + 1
+                                              + 8 + 4 * 8 + 2 + 8;
+
+    private Chip8Snapshot() {
+    }
+
+    public static int size(Chip8Machine machine) {
+        return REGISTERS_SIZE + machine.getMemory().size() + machine.getDisplay().stateSize();
+    }
+
+    public static byte[] save(Chip8Machine machine) {
+        byte snapshot[] = new byte[size(machine)];
+        save(machine, snapshot);
+        return snapshot;
+    }
+
+    // Saves into a caller supplied array of at least size(machine) bytes
+    public static void save(Chip8Machine machine, byte snapshot[]) {
+        Chip8CPU cpu = machine.getCPU();
+        ByteBuffer out = ByteBuffer.wrap(snapshot);
+        out.putInt(MAGIC);
+        out.put((byte) VERSION);
+        out.put((byte) cpu.getMode().ordinal());
+        for (int i = 0; i < 16; i++)
+            out.put((byte) cpu.V[i]);
+        out.putShort((short) cpu.I);
+        out.put((byte) cpu.DT);
+        out.put((byte) cpu.ST);
+        out.putShort((short) cpu.PC);
+        out.put((byte) cpu.SP);
+        for (int i = 0; i < 16; i++)
+            out.putShort((short) cpu.stack[i]);
+        for (int i = 0; i < 16; i++)
+            out.put((byte) cpu.flags[i]);
+        out.putLong(cpu.patternHigh);
+        out.putLong(cpu.patternLow);
+        out.put((byte) cpu.pitch);
+        int flags = cpu.halted ? FLAG_HALTED : 0;
+        if (cpu.keyWaitRegister >= 0)
+            flags |= FLAG_WAITING_FOR_KEY | cpu.keyWaitRegister << 4;
+        out.put((byte) flags);
+        out.put((byte) machine.getScheduler().instructionRemainder);
+        out.putLong(cpu.random instanceof Chip8Random ? ((Chip8Random) cpu.random).getState() : NO_RANDOM_STATE);
+        out.putLong(cpu.cycles);
+        out.putLong(cpu.idleCycles);
+        out.putLong(cpu.haltedCycles);
+        out.putLong(cpu.keyWaitCycles);
+        Chip8Keyboard keyboard = machine.getKeyboard();
+        out.putShort((short) keyboard.getPressedKeys());
+        out.putLong(keyboard.getLastPress());
+
+        Chip8Memory ram = machine.getMemory();
+        ram.copyTo(snapshot, out.position());
+        out.position(out.position() + ram.size());
+
+        machine.getDisplay().saveState(out);
+    }
+
+    public static void restore(Chip8Machine machine, byte snapshot[]) {
+        if (snapshot.length < size(machine))
+            throw new IllegalArgumentException("Snapshot is too short");
+        ByteBuffer in = ByteBuffer.wrap(snapshot);
+        if (in.getInt() != MAGIC)
+            throw new IllegalArgumentException("Not a Chip8 snapshot");
+        int version = in.get();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        Chip8CPU cpu = machine.getCPU();
+        if (in.get() != cpu.getMode().ordinal())
+            throw new IllegalArgumentException("Snapshot is for a different mode than " + cpu.getMode());
+
+        for (int i = 0; i < 16; i++)
+            cpu.V[i] = in.get() & 0xff;
+        cpu.I = in.getShort() & 0xffff;
+        cpu.DT = in.get() & 0xff;
+        cpu.ST = in.get() & 0xff;
+        cpu.PC = in.getShort() & 0xffff;
+        cpu.SP = in.get() & 0xff;
+        for (int i = 0; i < 16; i++)
+            cpu.stack[i] = in.getShort() & 0xffff;
+        for (int i = 0; i < 16; i++)
+            cpu.flags[i] = in.get() & 0xff;
+        cpu.patternHigh = in.getLong();
+        cpu.patternLow = in.getLong();
+        cpu.pitch = in.get() & 0xff;
+        int flags = in.get();
+        cpu.halted = (flags & FLAG_HALTED) != 0;
+        machine.getScheduler().instructionRemainder = in.get() & 0xff;
+        long randomState = in.getLong();
+        if (randomState != NO_RANDOM_STATE) {
+            if (!(cpu.random instanceof Chip8Random))
+                cpu.random = new Chip8Random(0);
+            ((Chip8Random) cpu.random).setState(randomState);
+        }
+        cpu.cycles = in.getLong();
+        cpu.idleCycles = in.getLong();
+        cpu.haltedCycles = in.getLong();
+        cpu.keyWaitCycles = in.getLong();
+        // The keys go first, a pending Fx0A waits for a press after them
+        machine.getKeyboard().restoreKeys(in.getShort() & 0xffff, in.getLong());
+        cpu.keyWaitRegister = -1;
+        if ((flags & FLAG_WAITING_FOR_KEY) != 0)
+            cpu.waitForKey((flags >> 4) & 0xf);
+
+        Chip8Memory ram = machine.getMemory();
+        ram.copyFrom(snapshot, in.position());
+        in.position(in.position() + ram.size());
+
+        machine.getDisplay().restoreState(in);
+    }
+}
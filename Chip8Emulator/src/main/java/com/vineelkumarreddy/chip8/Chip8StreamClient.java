@@ -0,0 +1,120 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+/**
+ * A blocking client for Chip8StreamServer that rebuilds the frames of
+ * one session and sends keys back to it.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8StreamClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(Chip8StreamServer.FRAME_HEADER_SIZE);
+    private final ByteBuffer key = ByteBuffer.allocate(2);
+    private byte delta[] = new byte[256];
+    private byte bytes[];
+    private int width, height, planes;
+
+    public Chip8StreamClient(InetSocketAddress address, long sessionId) throws IOException {
+        channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        ByteBuffer hello = readFully(ByteBuffer.allocate(5));
+        if (hello.getInt() != Chip8StreamServer.MAGIC)
+            throw new IOException(address + " is not a Chip8 stream server");
+        int version = hello.get();
+        if (version != Chip8StreamServer.VERSION)
+            throw new IOException("Unsupported stream version " + version);
+        subscribe(sessionId);
+    }
+
+    // Switches to another session. Frames of the old one that are already
+    // on their way still arrive; the first of the new one is a keyframe.
+    public void subscribe(long sessionId) throws IOException {
+        ByteBuffer subscribe = ByteBuffer.allocate(9);
+        subscribe.put((byte) Chip8StreamServer.SUBSCRIBE).putLong(sessionId).flip();
+        while (subscribe.hasRemaining())
+            channel.write(subscribe);
+    }
+
+    // Blocks until the next frame arrives
+    public Chip8Frame readFrame() throws IOException {
+        header.clear();
+        readFully(header);
+        if (header.get() != Chip8StreamServer.FRAME)
+            throw new IOException("Unexpected message");
+        boolean keyframe = (header.get() & Chip8StreamServer.KEYFRAME) != 0;
+        int width = header.get() & 0xff;
+        int height = header.get() & 0xff;
+        int planes = header.get() & 0xff;
+        int length = header.getShort() & 0xffff;
+        if (width != this.width || height != this.height || planes != this.planes) {
+            if (!keyframe)
+                throw new IOException("Delta against a frame of another size");
+            this.width = width;
+            this.height = height;
+            this.planes = planes;
+            bytes = new byte[planes * height * width / 8];
+        }
+        else if (keyframe) {
+            // Sent against a blank frame
+            Arrays.fill(bytes, (byte) 0);
+        }
+        if (delta.length < length)
+            delta = new byte[length];
+        readFully(ByteBuffer.wrap(delta, 0, length));
+        Chip8DeltaCodec.decode(delta, length, bytes);
+        return Chip8Frame.fromBytes(width, height, planes, bytes);
+    }
+
+    public void press(int key) throws IOException {
+        sendKey(key, true);
+    }
+
+    public void release(int key) throws IOException {
+        sendKey(key, false);
+    }
+
+    private void sendKey(int key, boolean pressed) throws IOException {
+        if (key < 0 || key > 0xf)
+            throw new IllegalArgumentException("Not a Chip8 key: " + key);
+        this.key.clear();
+        this.key.put((byte) Chip8StreamServer.KEY)
+                .put((byte) (key | (pressed ? Chip8StreamServer.PRESSED : 0))).flip();
+        while (this.key.hasRemaining())
+            channel.write(this.key);
+    }
+
+    private ByteBuffer readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                throw new IOException("Connection closed by the server");
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
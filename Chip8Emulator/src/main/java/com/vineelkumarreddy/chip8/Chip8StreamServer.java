@@ -0,0 +1,384 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the sessions of a SessionHost over TCP. Each selector thread
+ * serves many connections; once a frame it sends every client the
+ * delta from the last frame it got to the session's latest published
+ * frame, XOR and run length encoded by Chip8DeltaCodec. The first frame
+ * after a SUBSCRIBE, and a frame whose size or planes differ from the
+ * last one, is a keyframe: it is encoded against a blank frame, and the
+ * client has to start over from one. Clients that watch the same session and
+ * are equally up to date share one encoded delta. A client that cannot
+ * keep up is never waited for, it skips frames and later gets one delta
+ * covering all of them.
+ *
+ * Protocol, big endian. On connect the server sends magic "C8ST" and a
+ * version byte. Clients then send
+ *
+ *   SUBSCRIBE  1, session id (long)
+ *   KEY        2, key | 0x10 when pressed
+ *
+ * and after SUBSCRIBE the server sends
+ *
+ *   FRAME      1, flags, width, height, planes, delta length (short),
+ *              delta; flags is 1 for a keyframe
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8StreamServer implements AutoCloseable {
+    static final int MAGIC = 0x43385354; // C8ST
+    static final int VERSION = 2;
+    static final int SUBSCRIBE = 1, KEY = 2;
+    static final int FRAME = 1;
+    static final int KEYFRAME = 0x1;
+    static final int FRAME_HEADER_SIZE = 1 + 1 + 1 + 1 + 1 + 2;
+    static final int PRESSED = 0x10;
+
+    // Big enough for a delta of the largest frame, two XO-CHIP planes at 128x64
+    private static final int MAX_FRAME_MESSAGE = FRAME_HEADER_SIZE
+            + Chip8DeltaCodec.maxEncodedLength(2 * Chip8Framebuffer.HIRES_HEIGHT * Chip8Framebuffer.HIRES_WIDTH / 8);
+
+    private final SessionHost host;
+    private final ServerSocketChannel server;
+    private final Worker workers[];
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicInteger clients = new AtomicInteger();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private volatile boolean running;
+
+    // Port 0 picks a free port, see getAddress
+    public Chip8StreamServer(SessionHost host, InetSocketAddress address, int selectorThreads) throws IOException {
+        if (selectorThreads <= 0)
+            throw new IllegalArgumentException("selectorThreads must be positive");
+        this.host = host;
+        this.server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        workers = new Worker[selectorThreads];
+        for (int i = 0; i < selectorThreads; i++)
+            workers[i] = new Worker(i);
+        server.register(workers[0].selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    public void start() {
+        running = true;
+        for (Worker worker : workers)
+            worker.thread.start();
+    }
+
+    public int getClientCount() {
+        return clients.get();
+    }
+
+    // Frames not sent because a client was still busy with an earlier one
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        for (Worker worker : workers) {
+            worker.selector.wakeup();
+            try {
+                worker.thread.join();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        server.close();
+    }
+
+    private final class Worker implements Runnable {
+        final Selector selector;
+        final Thread thread;
+        final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        // Deltas encoded during the current frame, one per session, and
+        // the frames they were encoded from
+        final Map<Session, SharedDelta> deltas = new IdentityHashMap<>();
+        final Map<Chip8Frame, byte[]> frameBytes = new IdentityHashMap<>();
+        final byte scratch[] = new byte[MAX_FRAME_MESSAGE];
+
+        Worker(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "chip8-stream-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long deadline = System.nanoTime();
+            try {
+                while (running) {
+                    long wait = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (wait > 0)
+                        selector.select(wait);
+                    else
+                        selector.selectNow();
+                    registerAccepted();
+                    handleSelected();
+                    long now = System.nanoTime();
+                    if (now - deadline >= 0) {
+                        pushFrames();
+                        deadline += Chip8Scheduler.FRAME_NANOS;
+                        if (now - deadline > Chip8Scheduler.FRAME_NANOS)
+                            deadline = now;
+                    }
+                }
+            }
+            catch (IOException ex) {
+                ex.printStackTrace();
+            }
+            finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Client)
+                        disconnect(key);
+                }
+                try {
+                    selector.close();
+                }
+                catch (IOException ex) {
+                }
+            }
+        }
+
+        private void registerAccepted() throws ClosedChannelException {
+            SocketChannel channel;
+            // Writable first, the greeting is already waiting in the buffer
+            while ((channel = accepted.poll()) != null)
+                channel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE, new Client(channel));
+        }
+
+        private void handleSelected() {
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid())
+                    continue;
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                try {
+                    if (key.isReadable())
+                        read(key);
+                    if (key.isValid() && key.isWritable())
+                        flush(key);
+                }
+                catch (IOException | RuntimeException ex) {
+                    // Whatever went wrong only concerns this client
+                    disconnect(key);
+                }
+            }
+        }
+
+        // Hands new connections to the workers in turn
+        private void accept() {
+            try {
+                SocketChannel channel;
+                while ((channel = server.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    clients.incrementAndGet();
+                    Worker worker = workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)];
+                    worker.accepted.add(channel);
+                    if (worker != this)
+                        worker.selector.wakeup();
+                    else
+                        registerAccepted();
+                }
+            }
+            catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        private void read(SelectionKey key) throws IOException {
+            Client client = (Client) key.attachment();
+            if (client.channel.read(client.in) < 0) {
+                disconnect(key);
+                return;
+            }
+            client.in.flip();
+            while (client.in.hasRemaining()) {
+                int type = client.in.get(client.in.position());
+                if (type == SUBSCRIBE) {
+                    if (client.in.remaining() < 1 + 8)
+                        break;
+                    client.in.get();
+                    Session session = host.get(client.in.getLong());
+                    if (session == null)
+                        throw new IOException("No such session");
+                    client.session = session;
+                    client.sent = null;
+                }
+                else if (type == KEY) {
+                    if (client.in.remaining() < 1 + 1)
+                        break;
+                    client.in.get();
+                    int event = client.in.get();
+                    if (client.session == null)
+                        throw new IOException("KEY before SUBSCRIBE");
+                    Chip8Keyboard keyboard = client.session.getMachine().getKeyboard();
+                    if ((event & PRESSED) != 0)
+                        keyboard.press(event & 0xf);
+                    else
+                        keyboard.release(event & 0xf);
+                }
+                else {
+                    throw new IOException("Unknown message " + type);
+                }
+            }
+            client.in.compact();
+        }
+
+        private void pushFrames() {
+            deltas.clear();
+            frameBytes.clear();
+            for (SelectionKey key : selector.keys()) {
+                if (!key.isValid() || !(key.attachment() instanceof Client))
+                    continue;
+                Client client = (Client) key.attachment();
+                Session session = client.session;
+                if (session == null)
+                    continue;
+                if (session.getState() == Session.State.DESTROYED) {
+                    disconnect(key);
+                    continue;
+                }
+                Chip8Frame frame = session.getMachine().getDisplay().getPublishedFrame();
+                if (frame == client.sent)
+                    continue;
+                if (client.out.hasRemaining()) {
+                    droppedFrames.incrementAndGet();
+                    continue;
+                }
+                client.out.clear();
+                SharedDelta shared = deltas.get(session);
+                if (shared != null && shared.previous == client.sent && shared.current == frame) {
+                    client.out.put(shared.message.duplicate());
+                }
+                else {
+                    int length = encodeFrame(client.sent, frame, scratch);
+                    if (shared == null)
+                        deltas.put(session, new SharedDelta(client.sent, frame,
+                                                            ByteBuffer.wrap(Arrays.copyOf(scratch, length))));
+                    client.out.put(scratch, 0, length);
+                }
+                client.out.flip();
+                client.sent = frame;
+                try {
+                    flush(key);
+                }
+                catch (IOException ex) {
+                    disconnect(key);
+                }
+            }
+        }
+
+        // Writes what the socket takes now, the rest once it is writable
+        private void flush(SelectionKey key) throws IOException {
+            Client client = (Client) key.attachment();
+            client.channel.write(client.out);
+            key.interestOps(client.out.hasRemaining()
+                            ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        private void disconnect(SelectionKey key) {
+            key.cancel();
+            if (key.attachment() instanceof Client) {
+                clients.decrementAndGet();
+                key.attach(null);
+            }
+            try {
+                key.channel().close();
+            }
+            catch (IOException ex) {
+            }
+        }
+
+        private byte[] bytesOf(Chip8Frame frame) {
+            return frameBytes.computeIfAbsent(frame, Chip8Frame::toBytes);
+        }
+
+        // Writes a FRAME message into out and returns its length
+        private int encodeFrame(Chip8Frame previous, Chip8Frame frame, byte out[]) {
+            byte current[] = bytesOf(frame);
+            byte base[] = frame.sameGeometry(previous) ? bytesOf(previous) : null;
+            int length = Chip8DeltaCodec.encode(base, current, current.length, out, FRAME_HEADER_SIZE);
+            ByteBuffer.wrap(out, 0, FRAME_HEADER_SIZE)
+                    .put((byte) FRAME)
+                    .put((byte) (base == null ? KEYFRAME : 0))
+                    .put((byte) frame.getWidth())
+                    .put((byte) frame.getHeight())
+                    .put((byte) frame.getPlanes())
+                    .putShort((short) length);
+            return FRAME_HEADER_SIZE + length;
+        }
+    }
+
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(64);
+        final ByteBuffer out = ByteBuffer.allocate(MAX_FRAME_MESSAGE);
+        Session session;
+        // The frame the client has, null before the first one
+        Chip8Frame sent;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+            out.putInt(MAGIC).put((byte) VERSION).flip();
+        }
+    }
+
+    private static final class SharedDelta {
+        final Chip8Frame previous, current;
+        final ByteBuffer message;
+
+        SharedDelta(Chip8Frame previous, Chip8Frame current, ByteBuffer message) {
+            this.previous = previous;
+            this.current = current;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A machine's frames fell so far behind the wall clock that the lag was
+ * written off, see Chip8Metrics.MAX_DRIFT_FRAMES.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+@Name("com.vineelkumarreddy.chip8.TimerSlip")
+@Label("Chip8 Timer Slip")
+@Category("Chip8")
+@StackTrace(false)
+final class Chip8TimerSlipEvent extends Event {
+    @Label("Machine")
+    String machine;
+
+    @Label("Lag")
+    @Timespan(Timespan.NANOSECONDS)
+    long lag;
+}
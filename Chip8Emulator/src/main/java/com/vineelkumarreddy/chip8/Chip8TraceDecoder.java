@@ -0,0 +1,70 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Prints a trace file written by Chip8Tracer as disassembly, one
+ * instruction per line.
+ *
+ * Usage: Chip8TraceDecoder trace-file
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8TraceDecoder {
+
+    public static void main(String... args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: Chip8TraceDecoder trace-file");
+            System.exit(1);
+        }
+        decode(Paths.get(args[0]), System.out);
+    }
+
+    public static void decode(Path path, PrintStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < Chip8Tracer.HEADER_SIZE || buffer.getInt() != Chip8Tracer.MAGIC)
+            throw new IOException(path + " is not a Chip8 trace");
+        int version = buffer.getInt();
+        if (version != Chip8Tracer.VERSION)
+            throw new IOException("Unsupported trace version " + version);
+        int modeIndex = buffer.getInt();
+        if (modeIndex < 0 || modeIndex >= Chip8Mode.values().length)
+            throw new IOException(path + " has an unknown mode " + modeIndex);
+        Chip8Mode mode = Chip8Mode.values()[modeIndex];
+        int count = buffer.getInt();
+        long recorded = buffer.getLong();
+        for (int i = 0; i < count; i++) {
+            long entry = buffer.getLong();
+            int pc = (int) (entry >>> 48) & 0xffff;
+            int instruction = (int) (entry >>> 32) & 0xffff;
+            int vx = (int) (entry >>> 24) & 0xff;
+            int vy = (int) (entry >>> 16) & 0xff;
+            int I = (int) entry & 0xffff;
+            out.printf("%10d  %03X: %04X  %-16s V%X=%02X V%X=%02X I=%03X%n",
+                       recorded - count + i, pc, instruction,
+                       Chip8Disassembler.disassemble(instruction, mode),
+                       (instruction >> 8) & 0xf, vx, (instruction >> 4) & 0xf, vy, I);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Records the most recent instructions into a preallocated ring of longs.
+ * Each entry packs the PC, the instruction, the values of the Vx and Vy
+ * it names and I, so recording never allocates. The ring can be written
+ * to a binary trace file, which Chip8TraceDecoder turns back into text.
+ *
+ * Install with cpu.setMonitor(tracer); without it no tracing code runs.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Tracer implements Chip8Monitor {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Trace file layout: magic, version, mode, entry count, instructions
+    // recorded in total, then the entries oldest first, big endian.
+    static final int MAGIC = 0x43385452; // C8TR
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chip8-trace-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long ring[];
+    private final int mask;
+    private long recorded;
+    // Of the CPU traced last, the decoder reads the instructions in it
+    private Chip8Mode mode = Chip8Mode.CHIP8;
+    private volatile Path crashDumpPath;
+
+    public Chip8Tracer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity is the number of instructions kept and must be a power of two
+    public Chip8Tracer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity must be a power of two");
+        ring = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    @Override
+    public void afterInstruction(Chip8CPU cpu, int pc, int instruction) {
+        int vx = cpu.V[(instruction >> 8) & 0xf];
+        int vy = cpu.V[(instruction >> 4) & 0xf];
+        ring[(int) recorded & mask] = pack(pc, instruction, vx, vy, cpu.I);
+        recorded++;
+        mode = cpu.getMode();
+    }
+
+    // The trace is most useful right when something breaks, so it is
+    // written synchronously before the exception leaves the CPU
+    @Override
+    public void onException(Chip8CPU cpu, RuntimeException ex) {
+        Path path = crashDumpPath;
+        if (path == null)
+            return;
+        try {
+            write(path, mode, snapshot(), recorded);
+        }
+        catch (IOException ioex) {
+            ioex.printStackTrace();
+        }
+    }
+
+    // Where to write the trace if the CPU throws, null to disable
+    public void setCrashDumpPath(Path path) {
+        crashDumpPath = path;
+    }
+
+    public long getRecorded() {
+        return recorded;
+    }
+
+    // Copies the ring as it is now and writes it on a background thread.
+    // Entries written by the CPU while copying may be from either side
+    // of the copy, which is fine for a trace.
+    public Future<Path> dump(Path path) {
+        long total = recorded;
+        Chip8Mode mode = this.mode;
+        long entries[] = snapshot();
+        return WRITER.submit(() -> {
+            write(path, mode, entries, total);
+            return path;
+        });
+    }
+
+    private long[] snapshot() {
+        long total = recorded;
+        int count = (int) Math.min(total, ring.length);
+        long entries[] = new long[count];
+        for (int i = 0; i < count; i++)
+            entries[i] = ring[(int) (total - count + i) & mask];
+        return entries;
+    }
+
+    static long pack(int pc, int instruction, int vx, int vy, int I) {
+        return ((long) (pc & 0xffff) << 48) | ((long) (instruction & 0xffff) << 32)
+               | ((vx & 0xffL) << 24) | ((vy & 0xffL) << 16) | (I & 0xffffL);
+    }
+
+    static void write(Path path, Chip8Mode mode, long entries[], long recorded) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entries.length * 8);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(mode.ordinal()).putInt(entries.length).putLong(recorded);
+        buffer.asLongBuffer().put(entries);
+        buffer.position(0);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+}
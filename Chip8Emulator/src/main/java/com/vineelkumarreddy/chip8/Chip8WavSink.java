@@ -0,0 +1,95 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes samples to a WAV file. The sizes in the header are only known
+ * once the sink is closed, they are patched in then.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+final class Chip8WavSink implements Chip8AudioSink {
+    private static final int HEADER_SIZE = 44;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Chip8Audio.CHUNK_SAMPLES);
+    private long dataSize;
+
+    Chip8WavSink(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        channel.write(header(0), 0);
+        channel.position(HEADER_SIZE);
+    }
+
+    private static ByteBuffer header(long dataSize) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x46464952); // RIFF
+        header.putInt((int) (36 + dataSize));
+        header.putInt(0x45564157); // WAVE
+        header.putInt(0x20746d66); // fmt
+        header.putInt(16);
+        header.putShort((short) 1); // PCM
+        header.putShort((short) 1); // mono
+        header.putInt(Chip8Audio.SAMPLE_RATE);
+        header.putInt(Chip8Audio.SAMPLE_RATE); // bytes per second
+        header.putShort((short) 1); // bytes per frame
+        header.putShort((short) 8);
+        header.putInt(0x61746164); // data
+        header.putInt((int) dataSize);
+        return header.flip();
+    }
+
+    // WAV stores 8 bit samples unsigned
+    @Override
+    public void write(byte samples[], int length) {
+        try {
+            for (int offset = 0; offset < length; ) {
+                buffer.clear();
+                int n = Math.min(buffer.capacity(), length - offset);
+                for (int i = 0; i < n; i++)
+                    buffer.put((byte) (samples[offset + i] ^ 0x80));
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+                offset += n;
+            }
+            dataSize += length;
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        try (channel) {
+            channel.write(header(dataSize), 0);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+/**
+ * The framebuffer the CPU draws into. Rows are packed one bit per pixel,
+ * the leftmost pixel being the most significant bit of the row. Outside
+ * Chip8 mode there may be a high resolution and several bitplanes; the
+ * drawing, clearing and scrolling calls only touch the selected planes.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public interface Display {
+
+    int getDisplayWidth();
+
+    int getDisplayHeight();
+
+    /**
+     * XORs a sprite of height rows read from ram starting at address
+     * onto the display at (x, y). Height 0 draws a 16x16 sprite in the
+     * SUPER-CHIP and XO-CHIP modes.
+     *
+     * @return true if any lit pixel was erased (collision)
+     */
+    boolean drawSprite(Chip8Memory ram, int address, int x, int y, int height);
+
+    void clear();
+
+    void scrollDown(int rows);
+
+    void scrollUp(int rows);
+
+    void scrollRight(int pixels);
+
+    void scrollLeft(int pixels);
+
+    void setHighResolution(boolean highResolution);
+
+    boolean isHighResolution();
+
+    // Bit p set selects bitplane p
+    void selectPlanes(int mask);
+
+    // Called at the end of every frame, makes the current contents
+    // visible to renderers on other threads
+    void publish();
+}
@@ -14,32 +14,56 @@
  */
 package com.vineelkumarreddy.chip8;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 /**
+ * Usage: Main [rom]
+ *
+ * rom is the name of a bundled ROM, IBM by default, or a file path.
+ *
  * @author Vineel Kumar Reddy Kovvuri
  * @version 1.0
  * @date 19-03-2016
  */
 public class Main {
 
-    // I want to keep this program simple.
-    // Change the program file path accordingly
-    // before you run
-    public static void main(String... args) {
+    public static void main(String... args) throws IOException {
+        Chip8Rom rom = findRom(args.length > 0 ? args[0] : "IBM");
+        if (rom == null) {
+            System.err.println("No ROM called " + args[0]);
+            System.exit(1);
+        }
+        Chip8RomAnalysis analysis = Chip8RomCache.openDefault().get(rom);
+        Chip8Mode mode = analysis.getMode();
 
         // Init peripherals
         Chip8Keyboard keyboard = new Chip8Keyboard();
-        Chip8Display display = new Chip8Display(keyboard);
-        Chip8Memory ram = new Chip8Memory();
+        Chip8Framebuffer framebuffer = new Chip8Framebuffer(mode);
+        Chip8Display display = new Chip8Display(keyboard, framebuffer);
+        Chip8Memory ram = new Chip8Memory(mode.getMemorySize());
 
         // Init CPU
-        Chip8CPU cpu = new Chip8CPU(ram, display, keyboard);
+        Chip8CPU cpu = new Chip8CPU(ram, framebuffer, keyboard, mode);
 
         // Load program to RAM
-        ram.loadProgram(Paths.get("/home/vineel/Downloads/chip8/CHIP8/GAMES/IBM"));
+        rom.loadInto(ram);
+        cpu.preload(analysis);
 
         // Run CPU
+        display.setVisible(true);
+        display.startRendering();
         cpu.run();
     }
+
+    // Bundled ROMs first, then the file system
+    static Chip8Rom findRom(String name) throws IOException {
+        Chip8Rom rom = Chip8RomCatalog.fromClasspath().get(name);
+        if (rom != null)
+            return rom;
+        Path path = Paths.get(name);
+        return Files.isRegularFile(path) ? Chip8Rom.read(path) : null;
+    }
 }
@@ -0,0 +1,90 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * One headless machine hosted by a SessionHost.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Session {
+
+    public enum State {
+        RUNNING, PAUSED, FAILED, DESTROYED
+    }
+
+    private final long id;
+    private final Chip8Machine machine;
+    private volatile State state = State.RUNNING;
+    private volatile Throwable failure;
+    private long frames;
+
+    // Set by the host depending on how the session is being run
+    ScheduledFuture<?> future;
+    Thread thread;
+
+    Session(long id, Chip8Machine machine) {
+        this.id = id;
+        this.machine = machine;
+    }
+
+    // Runs a single frame. Synchronized because a resumed session may be
+    // rescheduled while the last frame before the pause is still running.
+    synchronized void runFrame() {
+        if (state != State.RUNNING)
+            return;
+        try {
+            machine.runFrame();
+            frames++;
+        }
+        catch (RuntimeException ex) {
+            failure = ex;
+            state = State.FAILED;
+        }
+    }
+
+    boolean isFinished() {
+        return state == State.FAILED || state == State.DESTROYED;
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Chip8Machine getMachine() {
+        return machine;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // Why the session stopped when it is FAILED, otherwise null
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public synchronized long getFrames() {
+        return frames;
+    }
+}
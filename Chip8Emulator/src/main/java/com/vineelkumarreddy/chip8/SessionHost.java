@@ -0,0 +1,276 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.management.JMException;
+
+/**
+ * Hosts many independent headless machines. No session owns a platform
+ * thread: either every session gets a virtual thread that parks between
+ * frames, or all sessions share a fixed pool of carrier threads that run
+ * one frame per session every 1/60th of a second.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class SessionHost implements AutoCloseable {
+
+    public enum Mode {
+        VIRTUAL_THREADS, CARRIER_POOL
+    }
+
+    private static final long FRAME_NANOS = Chip8Scheduler.FRAME_NANOS;
+    // A session that falls further behind than this stops trying to catch up
+    private static final long MAX_LAG_NANOS = 10 * FRAME_NANOS;
+
+    private final Mode mode;
+    private final int instructionsPerSecond;
+    private final ScheduledExecutorService carriers;
+    private final ThreadFactory virtualThreads;
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    // Set to stop paying for ROM analysis on every create, see Chip8RomCache
+    private volatile Chip8RomCache romCache;
+    // Exports every new session's metrics over JMX and JFR as session-<id>
+    private volatile boolean metricsExported;
+    // Records every new session's frames to session-<id>.c8r in here
+    private volatile Path recordingDirectory;
+
+    // A carrier pool with one thread per core
+    public SessionHost() {
+        this(Mode.CARRIER_POOL, Runtime.getRuntime().availableProcessors(),
+             Chip8Scheduler.DEFAULT_INSTRUCTIONS_PER_SECOND);
+    }
+
+    // carriers is ignored for VIRTUAL_THREADS
+    public SessionHost(Mode mode, int carriers, int instructionsPerSecond) {
+        this.mode = mode;
+        this.instructionsPerSecond = instructionsPerSecond;
+        if (mode == Mode.VIRTUAL_THREADS) {
+            this.virtualThreads = virtualThreadFactory();
+            if (virtualThreads == null)
+                throw new UnsupportedOperationException("Virtual threads need Java 21 or later");
+            this.carriers = null;
+        }
+        else {
+            AtomicInteger count = new AtomicInteger();
+            this.carriers = Executors.newScheduledThreadPool(carriers, r -> {
+                Thread thread = new Thread(r, "chip8-carrier-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.virtualThreads = null;
+        }
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return virtualThreadFactory() != null;
+    }
+
+    // Thread.ofVirtual().factory(), looked up reflectively so that the
+    // emulator still runs on releases without virtual threads
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory").invoke(builder);
+        }
+        catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    public Session create(Path program) throws IOException {
+        return create(program, Chip8Mode.CHIP8);
+    }
+
+    public Session create(Path program, Chip8Mode machineMode) throws IOException {
+        Chip8Machine machine = new Chip8Machine(machineMode);
+        machine.loadProgram(program);
+        return host(machine);
+    }
+
+    public void setMetricsExported(boolean metricsExported) {
+        this.metricsExported = metricsExported;
+    }
+
+    // null to stop recording sessions created from now on
+    public void setRecordingDirectory(Path recordingDirectory) {
+        this.recordingDirectory = recordingDirectory;
+    }
+
+    public void setRomCache(Chip8RomCache romCache) {
+        this.romCache = romCache;
+    }
+
+    // Runs the ROM in the mode it needs, from the ROM cache if there is one
+    public Session create(Chip8Rom rom) {
+        Chip8RomCache romCache = this.romCache;
+        Chip8RomAnalysis analysis = romCache != null ? romCache.get(rom) : Chip8RomAnalysis.analyse(rom);
+        Chip8Machine machine = new Chip8Machine(analysis.getMode());
+        machine.loadProgram(rom, analysis);
+        return host(machine);
+    }
+
+    private Session host(Chip8Machine machine) {
+        machine.getScheduler().setInstructionsPerSecond(instructionsPerSecond);
+        Session session = new Session(nextId.getAndIncrement(), machine);
+        if (metricsExported) {
+            try {
+                machine.getMetrics().export("session-" + session.getId());
+            }
+            catch (JMException ex) {
+                ex.printStackTrace();
+            }
+        }
+        Path recordingDirectory = this.recordingDirectory;
+        if (recordingDirectory != null) {
+            try {
+                machine.startFrameRecording(recordingDirectory.resolve("session-" + session.getId() + ".c8r"));
+            }
+            catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+        sessions.put(session.getId(), session);
+        start(session);
+        return session;
+    }
+
+    public Session get(long id) {
+        return sessions.get(id);
+    }
+
+    public Collection<Session> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public void pause(long id) {
+        Session session = sessions.get(id);
+        if (session == null)
+            return;
+        synchronized (session) {
+            if (session.getState() != Session.State.RUNNING)
+                return;
+            session.setState(Session.State.PAUSED);
+            if (session.future != null)
+                session.future.cancel(false);
+        }
+    }
+
+    public void resume(long id) {
+        Session session = sessions.get(id);
+        if (session == null)
+            return;
+        synchronized (session) {
+            if (session.getState() != Session.State.PAUSED)
+                return;
+            session.setState(Session.State.RUNNING);
+            session.getMachine().getScheduler().getMetrics().resetClock();
+            if (mode == Mode.CARRIER_POOL)
+                schedule(session);
+            else
+                LockSupport.unpark(session.thread);
+        }
+    }
+
+    public void destroy(long id) {
+        Session session = sessions.remove(id);
+        if (session == null)
+            return;
+        synchronized (session) {
+            session.setState(Session.State.DESTROYED);
+            session.getMachine().getMetrics().unexport();
+            try {
+                session.getMachine().stopFrameRecording();
+            }
+            catch (IOException ex) {
+                ex.printStackTrace();
+            }
+            if (session.future != null)
+                session.future.cancel(false);
+            if (session.thread != null)
+                LockSupport.unpark(session.thread);
+        }
+    }
+
+    private void start(Session session) {
+        if (mode == Mode.CARRIER_POOL) {
+            schedule(session);
+        }
+        else {
+            session.thread = virtualThreads.newThread(() -> runOnVirtualThread(session));
+            session.thread.setName("chip8-session-" + session.getId());
+            session.thread.start();
+        }
+    }
+
+    // The first run blocks in runFrame until future is set, since both
+    // hold the session's lock. A session that failed cancels its own task.
+    private void schedule(Session session) {
+        synchronized (session) {
+            session.future = carriers.scheduleAtFixedRate(() -> {
+                session.runFrame();
+                if (session.isFinished()) {
+                    synchronized (session) {
+                        session.future.cancel(false);
+                    }
+                }
+            }, 0, FRAME_NANOS, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Each session yields its virtual thread between frames, so only the
+    // sessions that are due to run occupy a carrier.
+    private void runOnVirtualThread(Session session) {
+        long deadline = System.nanoTime();
+        while (!session.isFinished()) {
+            if (session.getState() == Session.State.PAUSED) {
+                LockSupport.park(this);
+                deadline = System.nanoTime();
+                continue;
+            }
+            session.runFrame();
+            deadline += FRAME_NANOS;
+            long now = System.nanoTime();
+            if (now - deadline > MAX_LAG_NANOS)
+                deadline = now;
+            else if (deadline - now > 0)
+                LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Long id : sessions.keySet())
+            destroy(id);
+        if (carriers != null)
+            carriers.shutdownNow();
+    }
+}
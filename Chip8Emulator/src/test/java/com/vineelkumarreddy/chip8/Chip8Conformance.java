@@ -0,0 +1,400 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Headless conformance run over every bundled ROM, any ROMs in extra
+ * directories and a few opcode probes. Each ROM runs for a fixed number
+ * of frames from Chip8KeyScript's seed and key presses, once interpreted and
+ * once with the JIT, and the machine state is hashed at checkpoints.
+ * Both runs have to match the stored goldens. The probes, among them a
+ * self checking test of every Chip8 opcode, also have to leave the
+ * registers they name at the values written down with them, so they do
+ * not rely on goldens taken from the interpreter. Cases run in parallel
+ * on a ForkJoin pool. Chip8ConformanceTest runs the same checks from
+ * mvn test.
+ *
+ * Usage: Chip8Conformance [--update] [--goldens file] [rom-directory...]
+ *
+ * --update rewrites the goldens from the current interpreter instead of
+ * checking them, unless a probe is wrong or the JIT disagrees. Goldens
+ * default to src/test/resources/conformance/goldens and fall back to the
+ * copy on the test classpath.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+public class Chip8Conformance {
+    static final String CLASSPATH_GOLDENS = "/conformance/goldens";
+    static final Path DEFAULT_GOLDENS = Paths.get("src/test/resources/conformance/goldens");
+
+    static final int FRAMES = 1200;
+    static final int CHECKPOINT_FRAMES = 300;
+
+    // Programs checking single opcodes, run like any other ROM. Each one
+    // leaves its results in registers, which are part of the hash and
+    // also have to equal the values the probe expects.
+    static final Map<String, Probe> PROBES = new TreeMap<>();
+
+    static {
+        // 8xy5 and 8xy7 with equal operands do not borrow, VF = 1
+        probe("probe-sub-equal", "V0=00 V2=00 VE=01 VF=01",
+              0x6005, 0x6105, 0x8015, 0x8EF0, 0x6205, 0x6305, 0x8237, 0x120E);
+        probe("probe-sub-borrow", "V0=FF V2=FF VE=00 VF=00",
+              0x6004, 0x6105, 0x8015, 0x8EF0, 0x6206, 0x6305, 0x8237, 0x120E);
+        // VF as the subtrahend is read before the flag overwrites it,
+        // V3 = 5 - 3 = 2 and V4 = 9 - 1 = 8
+        probe("probe-sub-vf", "V3=02 V4=08 VF=01",
+              0x6305, 0x6F03, 0x83F5, 0x6401, 0x6F09, 0x84F7, 0x120C);
+        // Sprites wrap at the right and bottom edges in Chip8
+        probe("probe-wrap", "V0=3C V1=1E VF=00",
+              0xA20C, 0x603C, 0x611E, 0xD014, 0x1208, 0x0000, 0xFFFF, 0xFFFF);
+        probe("probe-shift-carry", "V0=40 V1=02 VE=01 VF=01",
+              0x6081, 0x8006, 0x8EF0, 0x6181, 0x811E, 0x120A);
+        probe("probe-opcodes", "VE=01", opcodeTest());
+    }
+
+    private static void probe(String name, String expected, int... instructions) {
+        byte rom[] = new byte[instructions.length * 2];
+        for (int i = 0; i < instructions.length; i++) {
+            rom[2 * i] = (byte) (instructions[i] >> 8);
+            rom[2 * i + 1] = (byte) instructions[i];
+        }
+        PROBES.put(name, new Probe(rom, expected));
+    }
+
+    /*
+    A self checking test of every Chip8 opcode but Fx0A, in the manner of
+    the usual opcode test ROMs. The expected values come from the opcode
+    definitions, not from running the interpreter. VD holds the number of
+    the check being made; a failed check jumps to FAIL and spins there, a
+    complete run sets VE = 1. Shifts work on Vx in place and Fx55/Fx65
+    leave I alone, as in Chip8CPU.
+    */
+    private static final int FAIL = 0x202;
+
+    static int[] opcodeTest() {
+        OpcodeTest t = new OpcodeTest();
+        t.emit(0x1204);                          // JP start
+        t.emit(0x1202);                          // FAIL: JP FAIL
+        t.emit(0x6012); t.check(0, 0x12);        // 6xkk
+        t.emit(0x6F33, 0x7005); t.check(0, 0x17);
+        t.emit(0x70F0); t.check(0, 0x07); t.check(0xF, 0x33); // 7xkk wraps, VF untouched
+        t.emit(0x3007, 0x1202);                  // 3xkk skips when equal
+        t.emit(0x3008); t.jumpOver(1); t.emit(0x1202);   // and only then
+        t.emit(0x4008, 0x1202);                  // 4xkk skips when not equal
+        t.emit(0x4007); t.jumpOver(1); t.emit(0x1202);
+        t.emit(0x6107, 0x5010, 0x1202);          // 5xy0
+        t.emit(0x6108, 0x5010); t.jumpOver(1); t.emit(0x1202);
+        t.emit(0x9010, 0x1202);                  // 9xy0
+        t.emit(0x6107, 0x9010); t.jumpOver(1); t.emit(0x1202);
+        t.emit(0x6155, 0x8010); t.check(0, 0x55); // 8xy0
+        t.emit(0x600C, 0x610A, 0x8011); t.check(0, 0x0E); // 8xy1
+        t.emit(0x600C, 0x8012); t.check(0, 0x08); // 8xy2
+        t.emit(0x600C, 0x8013); t.check(0, 0x06); // 8xy3
+        t.emit(0x60F0, 0x6120, 0x8014); t.check(0, 0x10); t.check(0xF, 1); // 8xy4
+        t.emit(0x6010, 0x8014); t.check(0, 0x30); t.check(0xF, 0);
+        t.emit(0x6005, 0x6103, 0x8015); t.check(0, 0x02); t.check(0xF, 1); // 8xy5
+        t.emit(0x6003, 0x6105, 0x8015); t.check(0, 0xFE); t.check(0xF, 0);
+        t.emit(0x6003, 0x8017); t.check(0, 0x02); t.check(0xF, 1); // 8xy7
+        t.emit(0x6105, 0x6003, 0x8107); t.check(1, 0xFE); t.check(0xF, 0);
+        t.emit(0x6005, 0x8006); t.check(0, 0x02); t.check(0xF, 1); // 8xy6
+        t.emit(0x8006); t.check(0, 0x01); t.check(0xF, 0);
+        t.emit(0x6081, 0x800E); t.check(0, 0x02); t.check(0xF, 1); // 8xyE
+        t.emit(0x800E); t.check(0, 0x04); t.check(0xF, 0);
+        t.emit(0x6305, 0x6F03, 0x83F5); t.check(3, 0x02); t.check(0xF, 1); // VF as an operand
+        t.emit(0x6180, 0x6F80, 0x8F14); t.check(0xF, 1); // the flag wins as Vx
+        t.emit(0x6011, 0x6122, 0x6233, 0x6344, 0xA800, 0xF355); // Annn, Fx55
+        t.emit(0x6000, 0x6001, 0xF01E, 0xF165); t.check(0, 0x22); t.check(1, 0x33); // Fx1E, Fx65
+        t.emit(0x6089, 0xA810, 0xF033, 0xF265); // Fx33
+        t.check(0, 0x01); t.check(1, 0x03); t.check(2, 0x07);
+        t.emit(0x600A, 0xF029, 0xF065); t.check(0, 0xF0); // Fx29
+        t.emit(0x6001, 0xF029, 0xF065); t.check(0, 0x20);
+        int call = t.address() + 2;              // 2nnn, 00EE
+        t.jumpOver(2); t.emit(0x6042, 0x00EE);
+        t.emit(0x6000, 0x2000 | call); t.check(0, 0x42);
+        int target = t.address() + 8;            // Bnnn
+        t.emit(0x6002, 0xB000 | (target - 2), 0x1202, 0x1202);
+        t.emit(0x6055, 0xC000); t.check(0, 0x00); // Cxkk
+        t.emit(0x00E0, 0x6000, 0xF029, 0x6100, 0x6200); // 00E0, Dxyn
+        t.emit(0xD125); t.check(0xF, 0);
+        t.emit(0xD125); t.check(0xF, 1);
+        t.emit(0xD125, 0x00E0, 0xD125); t.check(0xF, 0);
+        t.emit(0x00E0);
+        t.emit(0x6000, 0xE09E); t.jumpOver(1); t.emit(0x1202); // Ex9E, no key is down yet
+        t.emit(0xE0A1, 0x1202);                  // ExA1
+        t.emit(0x6003, 0xF018, 0xF015);          // Fx18, Fx15
+        int wait = t.address();                  // Fx07 counts down to 0
+        t.emit(0xF107, 0x3100, 0x1000 | wait);
+        t.emit(0x6E01);
+        t.emit(0x1000 | t.address());
+        return t.toArray();
+    }
+
+    private static final class OpcodeTest {
+        private final List<Integer> words = new ArrayList<>();
+        private int checks;
+
+        void emit(int... instructions) {
+            for (int instruction : instructions)
+                words.add(instruction);
+        }
+
+        // Fails unless Vx == kk
+        void check(int x, int kk) {
+            emit(0x6D00 | ++checks, 0x3000 | x << 8 | kk, 0x1000 | FAIL);
+        }
+
+        int address() {
+            return 0x200 + 2 * words.size();
+        }
+
+        // A jump past itself and the next n instructions
+        void jumpOver(int n) {
+            emit(0x1000 | (address() + 2 + 2 * n));
+        }
+
+        int[] toArray() {
+            return words.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException, ExecutionException {
+        boolean update = false;
+        Path goldensPath = DEFAULT_GOLDENS;
+        List<Chip8Rom> roms = cases();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--update"))
+                update = true;
+            else if (args[i].equals("--goldens") && i + 1 < args.length)
+                goldensPath = Paths.get(args[++i]);
+            else if (args[i].startsWith("--")) {
+                System.err.println("Usage: Chip8Conformance [--update] [--goldens file] [rom-directory...]");
+                System.exit(1);
+            }
+            else
+                roms.addAll(Chip8RomCatalog.fromDirectory(Paths.get(args[i])).getRoms());
+        }
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool();
+        List<Result> results;
+        try {
+            results = pool.submit(() -> roms.parallelStream()
+                    .map(Chip8Conformance::run)
+                    .collect(Collectors.toList())).get();
+        }
+        finally {
+            pool.shutdown();
+        }
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        if (update) {
+            // Goldens only record what the checks that do not need one accept
+            int failures = 0;
+            for (Result result : results) {
+                String status = status(result, result.interpreted);
+                if (!status.equals("ok")) {
+                    System.out.printf("%-20s %s%n", result.name, status);
+                    failures++;
+                }
+            }
+            if (failures > 0) {
+                System.out.printf("%d failed, goldens not written%n", failures);
+                System.exit(1);
+            }
+            writeGoldens(goldensPath, results);
+            System.out.printf("Wrote %d goldens to %s in %d ms%n", results.size(), goldensPath, elapsed);
+            return;
+        }
+        Map<String, String> goldens = readGoldens(goldensPath);
+        int failures = 0;
+        for (Result result : results) {
+            String status = status(result, goldens.get(result.name));
+            if (!status.equals("ok"))
+                failures++;
+            System.out.printf("%-20s %s%n", result.name, status);
+        }
+        System.out.printf("%d of %d passed in %d ms%n", results.size() - failures, results.size(), elapsed);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    // "ok" or what went wrong, golden is null if there is none
+    static String status(Result result, String golden) {
+        if (result.wrong != null)
+            return "WRONG " + result.wrong;
+        if (!result.interpreted.equals(result.compiled))
+            return "JIT DIFFERS";
+        if (golden == null)
+            return "NO GOLDEN";
+        if (!golden.equals(result.interpreted))
+            return "FAILED";
+        return "ok";
+    }
+
+    // The bundled ROMs and the probes
+    static List<Chip8Rom> cases() throws IOException {
+        List<Chip8Rom> roms = new ArrayList<>(Chip8RomCatalog.fromClasspath().getRoms());
+        for (Map.Entry<String, Probe> probe : PROBES.entrySet())
+            roms.add(new Chip8Rom(probe.getKey(), probe.getValue().program));
+        return roms;
+    }
+
+    static Result run(Chip8Rom rom) {
+        Probe probe = PROBES.get(rom.getName());
+        StringBuilder wrong = new StringBuilder();
+        String interpreted = run(rom, false, probe, wrong);
+        String compiled = run(rom, true, probe, wrong);
+        return new Result(rom.getName(), interpreted, compiled, wrong.length() > 0 ? wrong.toString() : null);
+    }
+
+    // Checkpoint hashes, space separated. Registers that differ from what
+    // the probe expects, if any, are appended to wrong.
+    static String run(Chip8Rom rom, boolean jit, Probe probe, StringBuilder wrong) {
+        Chip8RomAnalysis analysis = Chip8RomAnalysis.analyse(rom);
+        Chip8Machine machine = new Chip8Machine(analysis.getMode());
+        machine.getCPU().setSeed(Chip8KeyScript.SEED);
+        machine.getCPU().setJitEnabled(jit);
+        machine.loadProgram(rom);
+        StringBuilder hashes = new StringBuilder();
+        for (int frame = 1; frame <= FRAMES; frame++) {
+            Chip8KeyScript.press(machine.getKeyboard(), frame);
+            machine.runFrame();
+            if (frame % CHECKPOINT_FRAMES == 0) {
+                if (hashes.length() > 0)
+                    hashes.append(' ');
+                hashes.append(String.format("%016x", hash(machine)));
+            }
+        }
+        if (probe != null) {
+            String mismatches = probe.check(machine.getCPU());
+            if (mismatches != null)
+                wrong.append(jit ? "jit " : "interpreted ").append(mismatches).append(' ');
+        }
+        return hashes.toString();
+    }
+
+    // FNV-1a over the published frame, V0-VF, I and PC
+    static long hash(Chip8Machine machine) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : machine.getDisplay().getPublishedFrame().toBytes())
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        Chip8CPU cpu = machine.getCPU();
+        for (int v : cpu.V)
+            hash = (hash ^ v) * 0x100000001b3L;
+        hash = (hash ^ cpu.I) * 0x100000001b3L;
+        hash = (hash ^ cpu.PC) * 0x100000001b3L;
+        return hash;
+    }
+
+    static Map<String, String> readGoldens(Path path) throws IOException {
+        String text;
+        if (Files.isRegularFile(path)) {
+            text = Files.readString(path);
+        }
+        else {
+            try (InputStream in = Chip8Conformance.class.getResourceAsStream(CLASSPATH_GOLDENS)) {
+                if (in == null)
+                    throw new IOException("No goldens at " + path + " or on the classpath");
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        Map<String, String> goldens = new TreeMap<>();
+        for (String line : text.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            int space = line.indexOf(' ');
+            goldens.put(line.substring(0, space), line.substring(space + 1));
+        }
+        return goldens;
+    }
+
+    static void writeGoldens(Path path, List<Result> results) throws IOException {
+        StringBuilder text = new StringBuilder();
+        text.append("# Written by Chip8Conformance --update: name, then a state hash every ")
+            .append(CHECKPOINT_FRAMES).append(" frames\n");
+        results.stream()
+               .sorted((a, b) -> a.name.compareTo(b.name))
+               .forEach(result -> text.append(result.name).append(' ').append(result.interpreted).append('\n'));
+        if (path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        Files.writeString(path, text);
+    }
+
+    static final class Result {
+        final String name;
+        final String interpreted, compiled;
+        // Registers a probe left with unexpected values, null if none
+        final String wrong;
+
+        Result(String name, String interpreted, String compiled, String wrong) {
+            this.name = name;
+            this.interpreted = interpreted;
+            this.compiled = compiled;
+            this.wrong = wrong;
+        }
+    }
+
+    static final class Probe {
+        final byte program[];
+        // Register index and expected value pairs
+        private final int expected[];
+
+        // expected is like "V0=12 VF=01", values in hex
+        Probe(byte program[], String expected) {
+            this.program = program;
+            String pairs[] = expected.split(" ");
+            this.expected = new int[2 * pairs.length];
+            for (int i = 0; i < pairs.length; i++) {
+                this.expected[2 * i] = Character.digit(pairs[i].charAt(1), 16);
+                this.expected[2 * i + 1] = Integer.parseInt(pairs[i].substring(3), 16);
+            }
+        }
+
+        // The registers that differ, as VX=actual/expected, null if none
+        String check(Chip8CPU cpu) {
+            StringBuilder mismatches = new StringBuilder();
+            for (int i = 0; i < expected.length; i += 2) {
+                int register = expected[i], value = expected[i + 1];
+                if (cpu.V[register] != value) {
+                    if (mismatches.length() > 0)
+                        mismatches.append(' ');
+                    mismatches.append(String.format("V%X=%02X/%02X", register, cpu.V[register], value));
+                }
+            }
+            // Opcode tests say how far they got in VD
+            if (mismatches.length() > 0)
+                mismatches.append(String.format(" VD=%02X", cpu.V[0xD]));
+            return mismatches.length() > 0 ? mismatches.toString() : null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * Runs Chip8Conformance as part of the build, one test per ROM and probe.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+class Chip8ConformanceTest {
+
+    @TestFactory
+    Stream<DynamicTest> conformance() throws IOException {
+        Map<String, String> goldens = Chip8Conformance.readGoldens(Chip8Conformance.DEFAULT_GOLDENS);
+        return Chip8Conformance.cases().stream().map(rom -> DynamicTest.dynamicTest(rom.getName(), () -> {
+            Chip8Conformance.Result result = Chip8Conformance.run(rom);
+            assertNull(result.wrong, "registers left by the probe");
+            assertEquals(result.interpreted, result.compiled, "JIT against the interpreter");
+            assertEquals(goldens.get(rom.getName()), result.interpreted, "state hashes against the golden");
+        }));
+    }
+
+    // Every probe names the registers it checks, so none can pass on a
+    // golden alone
+    @TestFactory
+    Stream<DynamicTest> probesExpectRegisters() {
+        return Chip8Conformance.PROBES.entrySet().stream().map(probe -> DynamicTest.dynamicTest(probe.getKey(), () -> {
+            Chip8Machine blank = new Chip8Machine();
+            assertNotNull(probe.getValue().check(blank.getCPU()), "a machine that ran nothing passes");
+        }));
+    }
+}
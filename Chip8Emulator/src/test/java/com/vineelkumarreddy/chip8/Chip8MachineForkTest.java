@@ -0,0 +1,69 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a fork and the machine it was forked from share nothing
+ * a write can reach, whichever of the two writes first.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+class Chip8MachineForkTest {
+    private static final int ADDRESS = 0x300;
+    private static final int SPRITE = 0x310;
+
+    @Test
+    void ramWritesStayOnTheirSide() {
+        Chip8Machine parent = new Chip8Machine();
+        parent.getMemory().setByte(ADDRESS, 0xab);
+        Chip8Machine child = parent.fork();
+        assertEquals(0xab, child.getMemory().getByte(ADDRESS), "fork sees the parent's RAM");
+
+        child.getMemory().setByte(ADDRESS, 0x12);
+        assertEquals(0xab, parent.getMemory().getByte(ADDRESS), "parent after a write in the child");
+
+        parent.getMemory().setByte(ADDRESS + 1, 0x34);
+        assertEquals(0, child.getMemory().getByte(ADDRESS + 1), "child after a write in the parent");
+        assertEquals(0x12, child.getMemory().getByte(ADDRESS), "child keeps its own write");
+    }
+
+    @Test
+    void drawsStayOnTheirSide() {
+        Chip8Machine parent = new Chip8Machine();
+        parent.getMemory().setByte(SPRITE, 0xff);
+        parent.getDisplay().drawSprite(parent.getMemory(), SPRITE, 0, 0, 1);
+        parent.getDisplay().publish();
+        Chip8Machine child = parent.fork();
+        assertTrue(child.getDisplay().isPixelSet(0, 0), "fork sees the parent's pixels");
+        Chip8Frame published = parent.getDisplay().getPublishedFrame();
+
+        child.getDisplay().drawSprite(child.getMemory(), SPRITE, 0, 2, 1);
+        child.getDisplay().publish();
+        assertFalse(parent.getDisplay().isPixelSet(0, 2), "parent after a draw in the child");
+        assertEquals(published, parent.getDisplay().getPublishedFrame(), "parent's published frame");
+
+        parent.getDisplay().drawSprite(parent.getMemory(), SPRITE, 0, 4, 1);
+        assertFalse(child.getDisplay().isPixelSet(0, 4), "child after a draw in the parent");
+        assertTrue(child.getDisplay().isPixelSet(0, 2), "child keeps its own draw");
+    }
+}
@@ -0,0 +1,75 @@
+/*
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.vineelkumarreddy.chip8;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs a Chip8StreamServer and a Chip8StreamClient against each other
+ * over the loopback interface.
+ *
+ * @author Vineel Kumar Reddy Kovvuri
+ * @version 1.0
+ * @date 17-10-2026
+ */
+class Chip8StreamServerTest {
+    private static final long TIMEOUT_NANOS = 10_000_000_000L;
+
+    // The sessions are paused before anyone connects, so the server has
+    // exactly one frame to send after each SUBSCRIBE
+    @Test
+    void resubscribeStartsFromAKeyframe() throws Exception {
+        Chip8RomCatalog catalog = Chip8RomCatalog.fromClasspath();
+        try (SessionHost host = new SessionHost(SessionHost.Mode.CARRIER_POOL, 1, 600)) {
+            Session brix = host.create(catalog.get("BRIX"));
+            Session invaders = host.create(catalog.get("INVADERS"));
+            Chip8Frame brixFrame = runAndPause(host, brix);
+            Chip8Frame invadersFrame = runAndPause(host, invaders);
+            assertNotEquals(brixFrame, invadersFrame, "the two sessions show the same frame");
+
+            try (Chip8StreamServer server = new Chip8StreamServer(
+                    host, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1)) {
+                server.start();
+                try (Chip8StreamClient client = new Chip8StreamClient(server.getAddress(), brix.getId())) {
+                    assertEquals(brixFrame, client.readFrame(), "first frame");
+                    client.subscribe(invaders.getId());
+                    assertEquals(invadersFrame, client.readFrame(), "first frame after subscribing again");
+                    client.subscribe(brix.getId());
+                    assertEquals(brixFrame, client.readFrame(), "first frame after switching back");
+                }
+            }
+        }
+    }
+
+    // Runs the session until it has drawn something, then pauses it and
+    // returns what it shows
+    private static Chip8Frame runAndPause(SessionHost host, Session session)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        while (session.getFrames() < 60) {
+            if (System.nanoTime() - start > TIMEOUT_NANOS)
+                throw new IOException("Session " + session.getId() + " does not run");
+            Thread.sleep(10);
+        }
+        host.pause(session.getId());
+        return session.getMachine().getDisplay().getPublishedFrame();
+    }
+}